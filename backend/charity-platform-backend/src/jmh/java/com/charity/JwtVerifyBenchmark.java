@@ -0,0 +1,84 @@
+package com.charity;
+
+import com.charity.config.JwtKeyManager;
+import com.charity.config.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a Bearer token.
+ *
+ * - threeParses: what JwtAuthenticationFilter did before JwtUtil.verify
+ *   (extractUsername + validateToken: a fresh parser and a full parse and
+ *   HMAC check three times per request)
+ * - verifyMiss: one parse through the shared parser (cache disabled)
+ * - verifyHit: a repeat token served from the verified-token cache
+ *
+ * Run with:
+ *   mvn -Pbenchmarks test-compile exec:java -Dexec.mainClass=com.charity.JwtVerifyBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyManager keyManager = new JwtKeyManager();
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        ReflectionTestUtils.setField(keyManager, "secret", Base64.getEncoder().encodeToString(secret));
+        ReflectionTestUtils.setField(keyManager, "devSecret", "");
+        ReflectionTestUtils.setField(keyManager, "keystorePath", "");
+        ReflectionTestUtils.setField(keyManager, "keystorePassword", "");
+        keyManager.init();
+
+        key = keyManager.getSigningKey().getKey();
+        cached = new JwtUtil(keyManager, 1024, 3_600_000, 600_000);
+        uncached = new JwtUtil(keyManager, 0, 3_600_000, 600_000);
+        token = cached.generateAccessToken("admin", 1L, "ADMIN", "session");
+    }
+
+    @Benchmark
+    public Object threeParses() {
+        String subject = parse().getSubject();
+        Claims claims = parse();
+        return subject.equals(claims.getSubject()) && parse().getExpiration() != null;
+    }
+
+    @Benchmark
+    public Object verifyMiss() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public Object verifyHit() {
+        return cached.verify(token);
+    }
+
+    private Claims parse() {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerifyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,218 @@
+package com.charity.config;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.*;
+
+/**
+ * JWT signing keys shared by every node.
+ *
+ * Keys are HMAC secret entries in a local PKCS12 keystore; the entry alias
+ * is the key ID ("kid") written into each token header. Every node loads
+ * the same file, so any node can verify any token without coordination.
+ *
+ * Rotation: add a new entry to the keystore on all nodes, e.g.
+ *   keytool -genseckey -alias 2026-11 -keyalg HmacSHA256 -keysize 256 \
+ *           -storetype PKCS12 -keystore jwt-keys.p12
+ * The keystore is re-read on a schedule. A new key verifies immediately
+ * but is only used for signing once it is older than the activation delay,
+ * which gives every node time to pick it up first. Removing an entry
+ * retires it (tokens signed with it stop verifying).
+ *
+ * Without a keystore the key is derived from jwt.secret (kid "default"),
+ * which is still stable across restarts and nodes. Startup fails if neither
+ * is configured; the committed development secret is only accepted when
+ * jwt.allow-dev-secret is set, and never next to a keystore. Once keystore
+ * keys are in use, the "default" key can be retired with
+ * jwt.keystore.keep-default-key=false.
+ */
+@Component
+@Slf4j
+public class JwtKeyManager {
+
+    public static final String DEFAULT_KEY_ID = "default";
+
+    @Value("${jwt.secret:}")
+    private String secret;
+
+    @Value("${jwt.dev-secret:}")
+    private String devSecret;
+
+    @Value("${jwt.allow-dev-secret:false}")
+    private boolean allowDevSecret;
+
+    @Value("${jwt.keystore.keep-default-key:true}")
+    private boolean keepDefaultKey;
+
+    @Value("${jwt.keystore.path:}")
+    private String keystorePath;
+
+    @Value("${jwt.keystore.password:}")
+    private String keystorePassword;
+
+    @Value("${jwt.keystore.activation-delay-ms:600000}")
+    private long activationDelayMs;
+
+    private volatile Map<String, SigningKey> verificationKeys = Collections.emptyMap();
+    private volatile SigningKey currentSigningKey;
+
+    @PostConstruct
+    public void init() {
+        if (keystorePath.isBlank() && defaultSecret() == null) {
+            throw new IllegalStateException(
+                    "JWT_SECRET is not set (or is the development value) and no jwt.keystore.path is configured");
+        }
+        if (usesDevSecret() && !keystorePath.isBlank()) {
+            log.warn("Ignoring the development JWT secret because jwt.keystore.path is configured");
+        } else if (usesDevSecret()) {
+            log.warn("JWT tokens are signed with the committed development secret; do not use this in production");
+        }
+        reload();
+        if (currentSigningKey == null) {
+            throw new IllegalStateException("No JWT signing key available (check jwt.secret / jwt.keystore.path)");
+        }
+    }
+
+    /**
+     * Re-read the keystore and pick the signing key
+     */
+    @Scheduled(fixedDelayString = "${jwt.keystore.reload-interval-ms:300000}",
+            initialDelayString = "${jwt.keystore.reload-interval-ms:300000}")
+    public void reload() {
+        Map<String, SigningKey> keys = new HashMap<>();
+        String defaultSecret = defaultSecret();
+        // The committed development secret is never trusted next to real keystore keys
+        if (defaultSecret != null && (keystorePath.isBlank() || (keepDefaultKey && !usesDevSecret()))) {
+            keys.put(DEFAULT_KEY_ID, new SigningKey(DEFAULT_KEY_ID, Keys.hmacShaKeyFor(Decoders.BASE64.decode(defaultSecret)), 0L));
+        }
+
+        if (!keystorePath.isBlank()) {
+            try {
+                keys.putAll(loadKeystore(Paths.get(keystorePath)));
+            } catch (Exception e) {
+                // Keep serving with the previous key set rather than logging everyone out
+                log.error("Could not load JWT keystore {}: {}", keystorePath, e.getMessage());
+                if (!verificationKeys.isEmpty()) {
+                    return;
+                }
+            }
+        }
+
+        SigningKey signing = selectSigningKey(keys.values());
+        if (signing == null) {
+            log.error("JWT keystore {} has no usable keys and the default key is retired", keystorePath);
+            return;
+        }
+        Set<String> previous = verificationKeys.keySet();
+        verificationKeys = Collections.unmodifiableMap(keys);
+        if (currentSigningKey == null || !currentSigningKey.getKeyId().equals(signing.getKeyId())) {
+            log.info("JWT signing key is now '{}'", signing.getKeyId());
+        }
+        currentSigningKey = signing;
+
+        if (!previous.isEmpty() && !previous.equals(keys.keySet())) {
+            log.info("JWT verification keys changed: {} -> {}", previous, keys.keySet());
+        }
+    }
+
+    /**
+     * Key used to sign new tokens
+     */
+    public SigningKey getSigningKey() {
+        return currentSigningKey;
+    }
+
+    /**
+     * Key for verifying a token with the given kid (tokens without a kid use the default key)
+     */
+    public Optional<Key> getVerificationKey(String keyId) {
+        SigningKey key = verificationKeys.get(keyId != null ? keyId : DEFAULT_KEY_ID);
+        return Optional.ofNullable(key).map(SigningKey::getKey);
+    }
+
+    /**
+     * Whether a key is still in the active set (used to drop cached tokens of retired keys)
+     */
+    public boolean isActive(String keyId) {
+        return verificationKeys.containsKey(keyId != null ? keyId : DEFAULT_KEY_ID);
+    }
+
+    /**
+     * Newest keystore key that has been around longer than the activation delay;
+     * falls back to the oldest keystore key, then to the jwt.secret key (null if there is none)
+     */
+    private SigningKey selectSigningKey(Collection<SigningKey> keys) {
+        long cutoff = System.currentTimeMillis() - activationDelayMs;
+        List<SigningKey> keystoreKeys = keys.stream()
+                .filter(k -> !DEFAULT_KEY_ID.equals(k.getKeyId()))
+                .sorted(Comparator.comparingLong(SigningKey::getCreatedAt))
+                .toList();
+
+        if (keystoreKeys.isEmpty()) {
+            return keys.stream().filter(k -> DEFAULT_KEY_ID.equals(k.getKeyId())).findFirst().orElse(null);
+        }
+        return keystoreKeys.stream()
+                .filter(k -> k.getCreatedAt() <= cutoff)
+                .reduce((older, newer) -> newer)
+                .orElse(keystoreKeys.get(0));
+    }
+
+    /**
+     * jwt.secret, or the development secret when explicitly allowed; null if neither may be used
+     */
+    private String defaultSecret() {
+        if (!secret.isBlank() && !secret.equals(devSecret)) {
+            return secret;
+        }
+        return allowDevSecret && !devSecret.isBlank() ? devSecret : null;
+    }
+
+    private boolean usesDevSecret() {
+        String defaultSecret = defaultSecret();
+        return defaultSecret != null && defaultSecret.equals(devSecret);
+    }
+
+    private Map<String, SigningKey> loadKeystore(Path path) throws Exception {
+        char[] password = keystorePassword.toCharArray();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore.load(in, password);
+        }
+
+        Map<String, SigningKey> keys = new HashMap<>();
+        for (String alias : Collections.list(keyStore.aliases())) {
+            if (!keyStore.isKeyEntry(alias)) {
+                continue;
+            }
+            Key key = keyStore.getKey(alias, password);
+            if (key instanceof SecretKey secretKey) {
+                Date created = keyStore.getCreationDate(alias);
+                keys.put(alias, new SigningKey(alias, secretKey, created != null ? created.getTime() : 0L));
+            }
+        }
+        return keys;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class SigningKey {
+        private final String keyId;
+        private final Key key;
+        private final long createdAt;
+    }
+}
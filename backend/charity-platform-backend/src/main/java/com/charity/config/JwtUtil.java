@@ -1,97 +1,254 @@
 package com.charity.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
-    @Value("${jwt.secret}")
-    private String secretKey;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-    // Secret key for signing tokens (in production, store in environment variables)
-    private final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    // Claims carried by admin access tokens; the role is checked against the cached admin record
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ADMIN_ID = "uid";
+    public static final String CLAIM_SESSION_ID = "sid";
+    // Issue time in epoch millis; "iat" only has second resolution, too coarse to order against a revocation
+    public static final String CLAIM_ISSUED_AT_MS = "iatms";
+
+    // Signing/verification keys, shared by all nodes and selected by the "kid" header
+    private final JwtKeyManager keyManager;
+
+    // User token validity (jwt.expiration, default 10 hours)
+    private final long userTokenTtlMs;
+
+    // Admin access token validity (default 10 minutes); refreshed with a refresh token
+    private final long accessTokenTtlMs;
+
+    // Parser is immutable and thread-safe, so build it once; the key is resolved per token
+    private final JwtParser parser;
+
+    // Verified tokens keyed by SHA-256 digest, so repeat requests skip HMAC + JSON parsing.
+    // Lock-free reads; when full, expired entries and then an arbitrary quarter are evicted (approximate, not LRU)
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final int verifiedCacheSize;
 
-    // Token validity: 10 hours
-    private final long EXPIRATION_TIME = 1000 * 60 * 60 * 10;
+    // Revoked token IDs (jti) -> expiry (epoch millis); entries are purged once the token expires anyway
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+
+    // Subject -> "tokens issued at or before this instant (epoch millis) are revoked" (deactivation, role/password change)
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    public JwtUtil(JwtKeyManager keyManager,
+                   @Value("${jwt.verified-cache-size:1024}") int verifiedCacheSize,
+                   @Value("${jwt.expiration:36000000}") long userTokenTtlMs,
+                   @Value("${jwt.access-token-ttl-ms:600000}") long accessTokenTtlMs) {
+        this.keyManager = keyManager;
+        this.verifiedCacheSize = verifiedCacheSize;
+        this.userTokenTtlMs = userTokenTtlMs;
+        this.accessTokenTtlMs = accessTokenTtlMs;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // jjwt 0.11 declares this with a raw JwsHeader, so a typed override would not compile
+                    @Override
+                    @SuppressWarnings("rawtypes")
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyManager.getVerificationKey(header.getKeyId())
+                                .orElseThrow(() -> new JwtException("Unknown signing key: " + header.getKeyId()));
+                    }
+                })
+                .build();
+    }
 
     /**
      * Generate JWT token for a user
      */
     public String generateToken(String email) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, email);
+        return createToken(claims, email, userTokenTtlMs);
+    }
+
+    /**
+     * Generate a short-lived admin access token with the role embedded
+     */
+    public String generateAccessToken(String username, Long adminId, String role, String sessionId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_ROLE, role);
+        claims.put(CLAIM_ADMIN_ID, adminId);
+        claims.put(CLAIM_SESSION_ID, sessionId);
+        return createToken(claims, username, accessTokenTtlMs);
+    }
+
+    /**
+     * Admin access token lifetime in seconds
+     */
+    public long getAccessTokenTtlSeconds() {
+        return accessTokenTtlMs / 1000;
     }
 
     /**
      * Create the actual token
      */
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, long ttlMs) {
+        JwtKeyManager.SigningKey signingKey = keyManager.getSigningKey();
+        long now = System.currentTimeMillis();
+        claims.put(CLAIM_ISSUED_AT_MS, now);
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKeyId())
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject) // User email
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(SECRET_KEY)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMs))
+                .signWith(signingKey.getKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
     /**
-     * Extract email from token
+     * Parse and verify a token once.
+     * Repeat tokens are served from the cache until they expire; revoked tokens are always rejected.
+     *
+     * @throws JwtException if the token is malformed, badly signed, expired or revoked
      */
-    public String extractEmail(String token) {
-        return extractAllClaims(token).getSubject();
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+
+        VerifiedToken verified = verifiedTokens.get(digest);
+        // A retired key invalidates its tokens even if they are still cached
+        if (verified == null || verified.isExpired() || !keyManager.isActive(verified.getKeyId())) {
+            if (verified != null) {
+                verifiedTokens.remove(digest);
+            }
+
+            // Throws ExpiredJwtException / SignatureException / MalformedJwtException
+            Jws<Claims> jws = parser.parseClaimsJws(token);
+            Claims claims = jws.getBody();
+            verified = new VerifiedToken(
+                    claims.getSubject(),
+                    claims,
+                    claims.getExpiration().getTime(),
+                    digest,
+                    jws.getHeader().getKeyId()
+            );
+            cacheVerified(verified);
+        }
+
+        if (isRevoked(verified)) {
+            throw new JwtException("Token has been revoked");
+        }
+        return verified;
     }
 
     /**
-     * Extract username from token
+     * Revoke a token until it expires (e.g. on logout)
      */
-    public  String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    public VerifiedToken revokeToken(String token) {
+        VerifiedToken verified = verify(token);
+        revokedTokenIds.put(verified.getTokenId(), verified.getExpiresAt());
+        verifiedTokens.remove(verified.getDigest());
+        return verified;
     }
 
     /**
-     * Extract all claims from token
+     * Revoke every access token already issued to a subject.
+     * The entry only needs to outlive the longest access token, then it expires by itself.
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public void revokeAllIssuedBefore(String subject) {
+        revokedBefore.put(subject, System.currentTimeMillis());
     }
 
     /**
-     * Check if token is expired
+     * Drop revocations for tokens that have expired on their own
      */
-    private Boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpiredRevocations() {
+        long now = System.currentTimeMillis();
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedBefore.values().removeIf(cutoff -> cutoff + Math.max(accessTokenTtlMs, userTokenTtlMs) <= now);
+        verifiedTokens.values().removeIf(VerifiedToken::isExpired);
+    }
+
+    private void cacheVerified(VerifiedToken verified) {
+        if (verifiedCacheSize <= 0) {
+            return;
+        }
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            verifiedTokens.values().removeIf(VerifiedToken::isExpired);
+            // Iteration order follows the hash of the digest, so this drops effectively random entries
+            Iterator<String> keys = verifiedTokens.keySet().iterator();
+            int excess = verifiedTokens.size() - verifiedCacheSize * 3 / 4;
+            while (excess-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        verifiedTokens.put(verified.getDigest(), verified);
+    }
+
+    /**
+     * Extract email from token
+     */
+    public String extractEmail(String token) {
+        return verify(token).getSubject();
+    }
+
+    /**
+     * Extract username from token
+     */
+    public  String extractUsername(String token) {
+        return verify(token).getSubject();
     }
 
     /**
      * Validate token
      */
     public Boolean validateToken(String token, String email) {
-        final String extractedEmail = extractEmail(token);
-        return (extractedEmail.equals(email) && !isTokenExpired(token));
+        VerifiedToken verified = verify(token);
+        return (verified.getSubject().equals(email) && !verified.isExpired());
+    }
+
+    private boolean isRevoked(VerifiedToken verified) {
+        if (revokedTokenIds.containsKey(verified.getTokenId())) {
+            return true;
+        }
+        Long cutoff = revokedBefore.get(verified.getSubject());
+        if (cutoff == null) {
+            return false;
+        }
+        Long issuedAtMs = verified.getClaims().get(CLAIM_ISSUED_AT_MS, Long.class);
+        if (issuedAtMs != null) {
+            return issuedAtMs <= cutoff;
+        }
+        // Tokens from before the millisecond claim: iat is truncated to the second, so compare whole seconds
+        Date issuedAt = verified.getClaims().getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() / 1000 <= cutoff / 1000;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
 }
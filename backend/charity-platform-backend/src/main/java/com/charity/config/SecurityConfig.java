@@ -1,10 +1,13 @@
 package com.charity.config;
 
+import com.charity.security.CalibratedBCryptPasswordEncoder;
 import com.charity.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -13,9 +16,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
@@ -30,20 +33,26 @@ public class SecurityConfig {
 
     /**
      * Password Encoder Bean
-     * BCrypt is a strong hashing algorithm for passwords
+     * BCrypt is a strong hashing algorithm for passwords; the cost is calibrated
+     * at startup to take about security.bcrypt.target-millis on this machine
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.bcrypt.cost:0}") int fixedCost,
+            @Value("${security.bcrypt.target-millis:100}") long targetMillis,
+            @Value("${security.bcrypt.min-cost:10}") int minCost,
+            @Value("${security.bcrypt.max-cost:14}") int maxCost
+    ) {
+        return new CalibratedBCryptPasswordEncoder(fixedCost, targetMillis, minCost, maxCost);
     }
 
     /**
      * Authentication Provider
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -61,7 +70,7 @@ public class SecurityConfig {
      * Security Filter Chain with proper authentication and authorization
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http
                 // Enable CORS with our configuration
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
@@ -81,9 +90,13 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/v1/events/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/donations/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/volunteers/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/pages/**").permitAll()
 
-                        // Public content/image endpoints (for frontend)
-                        .requestMatchers(HttpMethod.GET, "/api/v1/admin/content/**").permitAll()
+                        // Public content/image endpoints (for frontend); only page-map reads published snapshots
+                        .requestMatchers(HttpMethod.GET, "/api/v1/admin/content/page-map/**").permitAll()
+
+                        // Every other content reader (single key, page, recent updates, revisions, drafts) returns drafts
+                        .requestMatchers(HttpMethod.GET, "/api/v1/admin/content/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/v1/admin/images/**").permitAll()
 
                         // Allow volunteer registration
@@ -106,6 +119,13 @@ public class SecurityConfig {
                         // Admin authentication
                         .requestMatchers("/api/v1/admin/auth/**").permitAll()
 
+                        // Admin CMS search and static site rendering
+                        .requestMatchers("/api/v1/admin/search/**").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/admin/static-site/**").hasRole("ADMIN")
+
+                        // Operational metrics (cache hit rates etc.)
+                        .requestMatchers("/api/v1/admin/metrics/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
+
                         // Admin content management (requires authentication)
                         .requestMatchers(HttpMethod.POST, "/api/v1/admin/content/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/v1/admin/content/**").hasRole("ADMIN")
@@ -135,13 +155,18 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
 
+                // Missing/expired token -> 401 so clients know to refresh
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
+
                 // Stateless session (JWT-based)
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
 
                 // Add JWT filter before username/password authentication
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -0,0 +1,30 @@
+package com.charity.config;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of parsing and verifying a JWT once.
+ * Safe to share between threads and to cache until {@link #getExpiresAt()}.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final String subject;
+    private final Claims claims;
+    private final long expiresAt;   // epoch millis
+    private final String digest;    // SHA-256 of the compact token
+    private final String keyId;     // "kid" header, null for tokens signed before key IDs
+
+    /**
+     * Token ID ("jti"); falls back to the digest for tokens issued without one
+     */
+    public String getTokenId() {
+        return claims.getId() != null ? claims.getId() : digest;
+    }
+
+    public boolean isExpired() {
+        return expiresAt <= System.currentTimeMillis();
+    }
+}
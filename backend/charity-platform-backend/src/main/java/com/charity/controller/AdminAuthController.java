@@ -1,13 +1,18 @@
 package com.charity.controller;
 
 import com.charity.dto.request.AdminLoginRequest;
+import com.charity.dto.request.RefreshTokenRequest;
 import com.charity.dto.response.AdminLoginResponse;
 import com.charity.dto.response.ErrorResponse;
 import com.charity.dto.response.SuccessResponse;
 import com.charity.exception.AdminAuthException;
+import com.charity.exception.TooManyRequestsException;
+import com.charity.security.LoginRateLimiter;
 import com.charity.service.AdminAuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,25 +31,66 @@ import org.springframework.web.bind.annotation.*;
 public class AdminAuthController {
 
     private final AdminAuthService adminAuthService;
+    private final LoginRateLimiter loginRateLimiter;
 
     /**
      * Admin login endpoint
      * POST /api/admin/auth/login
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody AdminLoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody AdminLoginRequest request, HttpServletRequest httpRequest) {
         try {
+            loginRateLimiter.checkLogin(httpRequest.getRemoteAddr(), request.getUsername());
             AdminLoginResponse response = adminAuthService.login(request);
             return ResponseEntity.ok(response);
         } catch (AdminAuthException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new   ErrorResponse("Authentication failed", e.getMessage()));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new ErrorResponse("Too many requests", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Server error", "An unexpected error occurred"));
         }
     }
 
+    /**
+     * Refresh endpoint: rotate the refresh token and issue a new access token
+     * POST /api/admin/auth/refresh
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            AdminLoginResponse response = adminAuthService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(response);
+        } catch (AdminAuthException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse("Invalid refresh token", e.getMessage()));
+        }
+    }
+
+    /**
+     * Logout endpoint (revokes the presented token)
+     * POST /api/admin/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String token) {
+        try {
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ErrorResponse("Invalid token", "Token must be Bearer format"));
+            }
+
+            adminAuthService.logout(token.replace("Bearer ", ""));
+            return ResponseEntity.ok(new SuccessResponse("Logged out successfully"));
+        } catch (AdminAuthException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse("Invalid token", e.getMessage()));
+        }
+    }
+
     /**
      * Validate token endpoint (for frontend verification)
      * GET /api/admin/auth/validate
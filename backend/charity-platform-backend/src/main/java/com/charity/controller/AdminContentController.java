@@ -1,23 +1,31 @@
 package com.charity.controller;
 
 import com.charity.config.JwtUtil;
+import com.charity.config.VerifiedToken;
 import com.charity.dto.request.BatchContentUpdateRequest;
 import com.charity.dto.request.ContentUpdateRequest;
 import com.charity.dto.response.BatchContentUpdateResponse;
 import com.charity.dto.response.ContentResponse;
+import com.charity.dto.response.ContentUpdateResult;
 import com.charity.dto.response.ErrorResponse;
 import com.charity.dto.response.SuccessResponse;
+import com.charity.exception.CharityException;
 import com.charity.service.PageContentService;
+import com.charity.service.PageContentSnapshotCache;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/admin/content")
@@ -68,19 +76,38 @@ public class AdminContentController {
             @RequestHeader("Authorization") String token) {
 
         try {
-            String adminUsername = extractUsernameFromToken(token);
-            List<ContentResponse> updated = contentService.batchUpdateContent(
+            VerifiedToken verified = verifyToken(token);
+            List<ContentUpdateResult> results = contentService.batchUpdateContent(
                     request.getContents(),
-                    adminUsername
+                    request.getPageName(),
+                    request.getMode(),
+                    verified.getClaims().get(JwtUtil.CLAIM_ADMIN_ID, Long.class),
+                    verified.getSubject()
             );
 
+            List<ContentResponse> updated = results.stream()
+                    .filter(r -> r.getContent() != null)
+                    .map(ContentUpdateResult::getContent)
+                    .collect(Collectors.toList());
+            List<String> errors = results.stream()
+                    .filter(r -> r.getError() != null)
+                    .map(r -> r.getContentKey() + ": " + r.getError())
+                    .collect(Collectors.toList());
+
             return ResponseEntity.ok(BatchContentUpdateResponse.builder()
-                    .message("Batch update completed successfully")
+                    .message(errors.isEmpty() ? "Batch update completed successfully" : "Batch update partially completed")
                     .successCount(updated.size())
-                    .failureCount(request.getContents().size() - updated.size())
+                    .failureCount(errors.size())
                     .updatedContent(updated)
+                    .errors(errors)
+                    .results(results)
                     .build());
 
+        } catch (CharityException e) {
+            // Atomic batch rejected as a whole
+            log.warn("Batch update rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Batch update failed", e.getMessage()));
         } catch (Exception e) {
             log.error("Batch update failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -89,7 +116,7 @@ public class AdminContentController {
     }
 
     /**
-     * Get single content item (PUBLIC - no auth required)
+     * Get single draft content item (ADMIN - drafts are not public)
      * GET /api/admin/content/{contentKey}
      */
     @GetMapping("/{contentKey}")
@@ -104,7 +131,7 @@ public class AdminContentController {
     }
 
     /**
-     * Get all content for a page (PUBLIC - no auth required)
+     * Get all draft content for a page (ADMIN - drafts are not public)
      * GET /api/admin/content/page/{pageName}
      */
     @GetMapping("/page/{pageName}")
@@ -127,14 +154,29 @@ public class AdminContentController {
     }
 
     /**
-     * Get page content as simple key-value map (PUBLIC - no auth required)
+     * Get published page content as simple key-value map (PUBLIC - no auth required)
      * GET /api/admin/content/page-map/{pageName}
      */
     @GetMapping("/page-map/{pageName}")
-    public ResponseEntity<?> getPageContentMap(@PathVariable String pageName) {
+    public ResponseEntity<?> getPageContentMap(
+            @PathVariable String pageName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, String> contentMap = contentService.getPageContentAsMap(pageName);
-            return ResponseEntity.ok(contentMap);
+            PageContentSnapshotCache.PageSnapshot snapshot = contentService.getPageSnapshot(pageName);
+
+            // Unchanged since the client's copy: no body, no database
+            if (snapshot.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(snapshot.getEtag())
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(snapshot.getJson());
         } catch (Exception e) {
             log.error("Error retrieving content map: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -152,8 +194,8 @@ public class AdminContentController {
             @RequestHeader("Authorization") String token) {
 
         try {
-            extractUsernameFromToken(token); // Verify auth
-            contentService.deleteContent(contentKey);
+            String adminUsername = extractUsernameFromToken(token);
+            contentService.deleteContent(contentKey, adminUsername);
 
             return ResponseEntity.ok(new SuccessResponse("Content deleted successfully"));
         } catch (Exception e) {
@@ -164,7 +206,7 @@ public class AdminContentController {
     }
 
     /**
-     * Get recent updates across all pages
+     * Get recent draft updates across all pages (ADMIN)
      * GET /api/admin/content/recent/updates
      */
     @GetMapping("/recent/updates")
@@ -183,11 +225,19 @@ public class AdminContentController {
      * @private
      */
     private String extractUsernameFromToken(String authHeader) {
+        return verifyToken(authHeader).getSubject();
+    }
+
+    /**
+     * Verify the Bearer token and return its claims
+     * @private
+     */
+    private VerifiedToken verifyToken(String authHeader) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             throw new IllegalArgumentException("Invalid authorization header");
         }
 
         String token = authHeader.replace("Bearer ", "");
-        return jwtUtil.extractEmail(token);
+        return jwtUtil.verify(token);
     }
 }
@@ -0,0 +1,166 @@
+package com.charity.controller;
+
+import com.charity.config.JwtUtil;
+import com.charity.dto.response.ContentResponse;
+import com.charity.dto.response.ContentRevisionResponse;
+import com.charity.dto.response.ErrorResponse;
+import com.charity.entity.PageContentRevision;
+import com.charity.exception.CharityException;
+import com.charity.service.ContentRevisionService;
+import com.charity.service.PageContentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Content revision history, point-in-time page views and rollback (admin only)
+ */
+@RestController
+@RequestMapping("/api/v1/admin/content/revisions")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = {
+        "http://localhost:3000",
+        "http://localhost:5500",
+        "http://localhost:8081",
+        "http://127.0.0.1:5500",
+        "http://127.0.0.1:3000",
+        "file://"
+})
+public class AdminContentRevisionController {
+
+    private final ContentRevisionService revisionService;
+    private final PageContentService contentService;
+    private final JwtUtil jwtUtil;
+
+    /**
+     * Revision list for a content key, newest first
+     * GET /api/v1/admin/content/revisions/key/{contentKey}
+     */
+    @GetMapping("/key/{contentKey}")
+    public ResponseEntity<?> getHistory(@PathVariable String contentKey) {
+        List<ContentRevisionResponse> history = revisionService.getHistory(contentKey).stream()
+                .map(ContentRevisionResponse::fromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(history);
+    }
+
+    /**
+     * One revision with its reconstructed value
+     * GET /api/v1/admin/content/revisions/key/{contentKey}/{revision}
+     */
+    @GetMapping("/key/{contentKey}/{revision}")
+    public ResponseEntity<?> getRevision(@PathVariable String contentKey, @PathVariable int revision) {
+        try {
+            PageContentRevision entity = revisionService.getRevision(contentKey, revision);
+            ContentRevisionResponse response = ContentRevisionResponse.fromEntity(entity);
+            response.setContentValue(revisionService.getValueAt(contentKey, revision));
+            return ResponseEntity.ok(response);
+        } catch (CharityException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("Revision not found", e.getMessage()));
+        }
+    }
+
+    /**
+     * Restore a content key to a revision (appends a new revision)
+     * POST /api/v1/admin/content/revisions/key/{contentKey}/{revision}/rollback
+     */
+    @PostMapping("/key/{contentKey}/{revision}/rollback")
+    public ResponseEntity<?> rollbackContent(
+            @PathVariable String contentKey,
+            @PathVariable int revision,
+            @RequestHeader("Authorization") String token) {
+
+        try {
+            ContentResponse restored = contentService.rollbackContent(contentKey, revision, extractUsernameFromToken(token));
+            return ResponseEntity.ok(restored);
+        } catch (CharityException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Rollback failed", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Rollback of '{}' failed: {}", contentKey, e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse("Rollback failed", e.getMessage()));
+        }
+    }
+
+    /**
+     * Latest revisions on a page, newest first
+     * GET /api/v1/admin/content/revisions/page/{pageName}
+     */
+    @GetMapping("/page/{pageName}")
+    public ResponseEntity<?> getPageHistory(@PathVariable String pageName) {
+        return ResponseEntity.ok(contentService.getPageUpdateHistory(pageName));
+    }
+
+    /**
+     * The page as it was at an instant
+     * GET /api/v1/admin/content/revisions/page/{pageName}/at?timestamp=2026-01-31T12:00:00
+     */
+    @GetMapping("/page/{pageName}/at")
+    public ResponseEntity<?> getPageAt(
+            @PathVariable String pageName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime timestamp) {
+
+        try {
+            Map<String, Object> response = new HashMap<>();
+            Map<String, String> content = revisionService.getPageAt(pageName, timestamp);
+            response.put("page", pageName);
+            response.put("timestamp", timestamp);
+            response.put("content", content);
+            response.put("count", content.size());
+            return ResponseEntity.ok(response);
+        } catch (CharityException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error rebuilding page", e.getMessage()));
+        }
+    }
+
+    /**
+     * Restore a whole page to an instant in one transaction
+     * POST /api/v1/admin/content/revisions/page/{pageName}/rollback?timestamp=2026-01-31T12:00:00
+     */
+    @PostMapping("/page/{pageName}/rollback")
+    public ResponseEntity<?> rollbackPage(
+            @PathVariable String pageName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime timestamp,
+            @RequestHeader("Authorization") String token) {
+
+        try {
+            Map<String, String> restored = contentService.rollbackPage(pageName, timestamp, extractUsernameFromToken(token));
+            Map<String, Object> response = new HashMap<>();
+            response.put("page", pageName);
+            response.put("timestamp", timestamp);
+            response.put("restored", restored.size());
+            return ResponseEntity.ok(response);
+        } catch (CharityException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Rollback failed", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Rollback of page '{}' failed: {}", pageName, e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse("Rollback failed", e.getMessage()));
+        }
+    }
+
+    /**
+     * Extract admin username from JWT token
+     * @private
+     */
+    private String extractUsernameFromToken(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new IllegalArgumentException("Invalid authorization header");
+        }
+        return jwtUtil.verify(authHeader.replace("Bearer ", "")).getSubject();
+    }
+}
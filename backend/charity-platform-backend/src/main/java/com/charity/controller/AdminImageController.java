@@ -3,10 +3,13 @@ package com.charity.controller;
 import com.charity.dto.request.ImageUploadRequest;
 import com.charity.dto.response.ImageResponse;
 import com.charity.service.ImageManagementService;
+import com.charity.service.ImageVariantService;
 import com.charity.config.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,6 +17,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/admin/images")
@@ -30,6 +34,10 @@ import java.util.Map;
 public class AdminImageController {
 
     private final ImageManagementService imageManagementService;
+    private final ImageVariantService imageVariantService;
+
+    @Value("${images.metadata-max-age-seconds:60}")
+    private long metadataMaxAgeSeconds;
     private final JwtUtil jwtUtil;
 
     /**
@@ -83,7 +91,9 @@ public class AdminImageController {
     public ResponseEntity<?> getImage(@PathVariable String imageKey) {
         try {
             ImageResponse image = imageManagementService.getImage(imageKey);
-            return ResponseEntity.ok(image);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(metadataMaxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                    .body(image);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -192,6 +202,31 @@ public class AdminImageController {
         }
     }
 
+    /**
+     * Queue resized-variant generation for existing images
+     * POST /api/admin/images/variants/backfill?all=false
+     * all=true regenerates every image (e.g. after changing image.variants.widths)
+     */
+    @PostMapping("/variants/backfill")
+    public ResponseEntity<?> backfillVariants(
+            @RequestParam(defaultValue = "false") boolean all,
+            @RequestHeader("Authorization") String token) {
+
+        try {
+            extractUsernameFromToken(token); // Verify auth
+            int queued = imageVariantService.backfill(all);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "queued", queued
+            ));
+        } catch (Exception e) {
+            log.error("Variant backfill failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Backfill failed", "message", e.getMessage()));
+        }
+    }
+
     /**
      * Extract admin username from JWT token
      * @private
@@ -0,0 +1,90 @@
+package com.charity.controller;
+
+import com.charity.security.AdminPrincipalCache;
+import com.charity.security.LoginRateLimiter;
+import com.charity.security.PasswordHashingExecutor;
+import com.charity.service.CmsSearchIndex;
+import com.charity.service.ImageDownloadCounter;
+import com.charity.service.ImageFileServer;
+import com.charity.service.ImageVariantService;
+import com.charity.service.PageBundleCache;
+import com.charity.service.PageContentSnapshotCache;
+import com.charity.service.StaticSiteRenderer;
+import com.charity.service.UploadReconciler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Operational metrics for admins (no actuator on the classpath)
+ */
+@RestController
+@RequestMapping("/api/v1/admin/metrics")
+@RequiredArgsConstructor
+public class AdminMetricsController {
+
+    private final AdminPrincipalCache principalCache;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final LoginRateLimiter loginRateLimiter;
+    private final PageContentSnapshotCache contentSnapshots;
+    private final PageBundleCache pageBundles;
+    private final CmsSearchIndex searchIndex;
+    private final StaticSiteRenderer staticSite;
+    private final ImageVariantService imageVariants;
+    private final ImageFileServer imageFiles;
+    private final ImageDownloadCounter imageDownloads;
+    private final UploadReconciler uploadReconciler;
+
+    /**
+     * Get all metrics
+     * GET /api/v1/admin/metrics
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("principalCache", principalCache.getStats());
+        metrics.put("passwordHashing", hashingExecutor.getStats());
+        metrics.put("loginRateLimit", loginRateLimiter.getStats());
+        metrics.put("contentSnapshots", contentSnapshots.getStats());
+        metrics.put("pageBundles", pageBundles.getStats());
+        metrics.put("search", searchIndex.getStats());
+        metrics.put("staticSite", staticSite.getStats());
+        metrics.put("imageVariants", imageVariants.getStats());
+        metrics.put("imageFiles", imageFiles.getStats());
+        metrics.put("imageDownloads", imageDownloads.getStats());
+        metrics.put("uploads", uploadReconciler.getStats());
+        return ResponseEntity.ok(metrics);
+    }
+
+    /**
+     * Get principal cache metrics
+     * GET /api/v1/admin/metrics/principal-cache
+     */
+    @GetMapping("/principal-cache")
+    public ResponseEntity<Map<String, Object>> getPrincipalCacheMetrics() {
+        return ResponseEntity.ok(principalCache.getStats());
+    }
+
+    /**
+     * Get password hashing pool metrics (latency, queue depth, rejections)
+     * GET /api/v1/admin/metrics/password-hashing
+     */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingMetrics() {
+        return ResponseEntity.ok(hashingExecutor.getStats());
+    }
+
+    /**
+     * Get upload directory drift (disk vs. images table, orphans, quarantine)
+     * GET /api/v1/admin/metrics/uploads
+     */
+    @GetMapping("/uploads")
+    public ResponseEntity<Map<String, Object>> getUploadMetrics() {
+        return ResponseEntity.ok(uploadReconciler.getStats());
+    }
+}
@@ -0,0 +1,124 @@
+package com.charity.controller;
+
+import com.charity.config.JwtUtil;
+import com.charity.dto.response.ErrorResponse;
+import com.charity.dto.response.PublishedPageResponse;
+import com.charity.exception.CharityException;
+import com.charity.service.PagePublishService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Draft/publish endpoints (admin only)
+ */
+@RestController
+@RequestMapping("/api/v1/admin/content/publish")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = {
+        "http://localhost:3000",
+        "http://localhost:5500",
+        "http://localhost:8081",
+        "http://127.0.0.1:5500",
+        "http://127.0.0.1:3000",
+        "file://"
+})
+public class AdminPagePublishController {
+
+    private final PagePublishService publishService;
+    private final JwtUtil jwtUtil;
+
+    /**
+     * Publish the current draft of a page
+     * POST /api/v1/admin/content/publish/{pageName}
+     */
+    @PostMapping("/{pageName}")
+    public ResponseEntity<?> publish(
+            @PathVariable String pageName,
+            @RequestHeader("Authorization") String token) {
+
+        try {
+            PublishedPageResponse published = publishService.publish(pageName, extractUsernameFromToken(token));
+            return ResponseEntity.ok(published);
+        } catch (CharityException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Publish failed", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Publish of '{}' failed: {}", pageName, e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse("Publish failed", e.getMessage()));
+        }
+    }
+
+    /**
+     * Make an earlier published version live again
+     * POST /api/v1/admin/content/publish/{pageName}/versions/{version}/restore
+     */
+    @PostMapping("/{pageName}/versions/{version}/restore")
+    public ResponseEntity<?> restore(
+            @PathVariable String pageName,
+            @PathVariable int version,
+            @RequestHeader("Authorization") String token) {
+
+        try {
+            PublishedPageResponse published = publishService.restore(pageName, version, extractUsernameFromToken(token));
+            return ResponseEntity.ok(published);
+        } catch (CharityException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Restore failed", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Restore of '{}' v{} failed: {}", pageName, version, e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse("Restore failed", e.getMessage()));
+        }
+    }
+
+    /**
+     * Draft vs. live comparison
+     * GET /api/v1/admin/content/publish/{pageName}
+     */
+    @GetMapping("/{pageName}")
+    public ResponseEntity<?> getStatus(@PathVariable String pageName) {
+        return ResponseEntity.ok(publishService.getStatus(pageName));
+    }
+
+    /**
+     * Publish history, newest first
+     * GET /api/v1/admin/content/publish/{pageName}/versions
+     */
+    @GetMapping("/{pageName}/versions")
+    public ResponseEntity<?> getHistory(@PathVariable String pageName) {
+        return ResponseEntity.ok(publishService.getHistory(pageName));
+    }
+
+    /**
+     * Draft content as a key/value map (editor preview)
+     * GET /api/v1/admin/content/publish/{pageName}/draft
+     */
+    @GetMapping("/{pageName}/draft")
+    public ResponseEntity<?> getDraft(@PathVariable String pageName) {
+        Map<String, String> draft = publishService.getDraft(pageName);
+        Map<String, Object> response = new HashMap<>();
+        response.put("page", pageName);
+        response.put("content", draft);
+        response.put("count", draft.size());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Extract admin username from JWT token
+     * @private
+     */
+    private String extractUsernameFromToken(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new IllegalArgumentException("Invalid authorization header");
+        }
+        return jwtUtil.verify(authHeader.replace("Bearer ", "")).getSubject();
+    }
+}
@@ -0,0 +1,56 @@
+package com.charity.controller;
+
+import com.charity.dto.response.ErrorResponse;
+import com.charity.service.CmsSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Ranked search over CMS content and images (admin only)
+ */
+@RestController
+@RequestMapping("/api/v1/admin/search")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {
+        "http://localhost:3000",
+        "http://localhost:5500",
+        "http://localhost:8081",
+        "http://127.0.0.1:5500",
+        "http://127.0.0.1:3000",
+        "file://"
+})
+public class AdminSearchController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    // Deep pages keep (page + 1) * size hits in the ranking heap
+    private static final int MAX_PAGE = 1000;
+
+    private final CmsSearchIndex searchIndex;
+
+    /**
+     * Search content and images
+     * GET /api/v1/admin/search?q=volunteer "clean water"&type=content&pageName=landing&page=0&size=20
+     *
+     * Words match exactly or as a prefix, with typo tolerance; quoted text is a phrase.
+     */
+    @GetMapping
+    public ResponseEntity<?> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String pageName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (type != null && !type.equals(CmsSearchIndex.TYPE_CONTENT) && !type.equals(CmsSearchIndex.TYPE_IMAGE)) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Invalid type", "type must be 'content' or 'image'"));
+        }
+        if (page < 0 || page > MAX_PAGE || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Invalid paging",
+                            "page must be between 0 and " + MAX_PAGE + " and size between 1 and " + MAX_PAGE_SIZE));
+        }
+        return ResponseEntity.ok(searchIndex.search(q, type, pageName, page, size));
+    }
+}
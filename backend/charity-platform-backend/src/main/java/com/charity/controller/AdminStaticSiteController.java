@@ -0,0 +1,45 @@
+package com.charity.controller;
+
+import com.charity.dto.response.ErrorResponse;
+import com.charity.service.StaticSiteRenderer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Static site pre-rendering (admin only)
+ */
+@RestController
+@RequestMapping("/api/v1/admin/static-site")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminStaticSiteController {
+
+    private final StaticSiteRenderer renderer;
+
+    /**
+     * Render now (incremental; unchanged files are left alone)
+     * POST /api/v1/admin/static-site/render
+     */
+    @PostMapping("/render")
+    public ResponseEntity<?> render() {
+        try {
+            return ResponseEntity.ok(renderer.render());
+        } catch (Exception e) {
+            log.error("Static site render failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Render failed", e.getMessage()));
+        }
+    }
+
+    /**
+     * Output directory and last render
+     * GET /api/v1/admin/static-site
+     */
+    @GetMapping
+    public ResponseEntity<?> getStatus() {
+        return ResponseEntity.ok(renderer.getStats());
+    }
+}
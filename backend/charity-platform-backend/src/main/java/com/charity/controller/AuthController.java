@@ -8,7 +8,9 @@ import com.charity.entity.User;
 import com.charity.exception.UserAlreadyExistsException;
 import com.charity.exception.UserNotFoundException;
 import com.charity.mapper.UserMapper;
+import com.charity.security.LoginRateLimiter;
 import com.charity.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -21,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
     /**
      * Register a new user
@@ -40,7 +43,9 @@ public class AuthController {
      * Login and get JWT token
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // Rate limit violations (429) are handled by GlobalExceptionHandler
+        loginRateLimiter.checkLogin(httpRequest.getRemoteAddr(), request.getEmail());
         try {
             LoginResponse response = authService.login(request);
             return ResponseEntity.ok(response);
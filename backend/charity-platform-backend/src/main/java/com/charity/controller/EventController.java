@@ -3,6 +3,7 @@ package com.charity.controller;
 
 import com.charity.dto.request.EventRequest;
 import com.charity.dto.response.EventResponse;
+import com.charity.dto.response.VolunteerRecommendationResponse;
 import com.charity.entity.CharityProject;
 import com.charity.entity.Event;
 import com.charity.entity.EventStatus;
@@ -11,6 +12,7 @@ import com.charity.mapper.EventMapper;
 import com.charity.service.CharityProjectService;
 import com.charity.service.EventService;
 import com.charity.service.UserService;
+import com.charity.service.VolunteerRecommendationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -28,6 +30,7 @@ public class EventController {
     private final EventService eventService;
     private final UserService userService;
     private final CharityProjectService projectService;
+    private final VolunteerRecommendationService recommendationService;
 
     /**
      * Create a new event
@@ -47,6 +50,9 @@ public class EventController {
         // Match the service signature: (Event, Long, Long)
         Event savedEvent = eventService.createEvent(event, request.getOrganizedById(), request.getProjectId());
 
+        // Warm up volunteer suggestions for the new event
+        recommendationService.precomputeAsync(savedEvent.getId());
+
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(EventMapper.toResponse(savedEvent));
     }
@@ -109,6 +115,17 @@ public class EventController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get best-fit volunteer suggestions for an event
+     * GET /api/v1/events/{id}/recommended-volunteers?limit=10
+     */
+    @GetMapping("/{id}/recommended-volunteers")
+    public ResponseEntity<List<VolunteerRecommendationResponse>> getRecommendedVolunteers(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(recommendationService.getRecommendations(id, limit));
+    }
+
     /**
      * Register volunteer for event
      */
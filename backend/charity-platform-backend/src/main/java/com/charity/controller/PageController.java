@@ -0,0 +1,94 @@
+package com.charity.controller;
+
+import com.charity.dto.response.ErrorResponse;
+import com.charity.service.PageBundleCache;
+import com.charity.util.ContentNegotiation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public page endpoints for the frontend
+ */
+@RestController
+@RequestMapping("/api/v1/pages")
+@RequiredArgsConstructor
+@Slf4j
+public class PageController {
+
+    private final PageBundleCache bundleCache;
+
+    /**
+     * Current bundle version of every page, for building version-keyed bundle URLs (PUBLIC)
+     * GET /api/v1/pages/versions
+     *
+     * Small and always revalidated, so clients learn about a change on their next page load.
+     */
+    @GetMapping("/versions")
+    public ResponseEntity<?> getPageVersions() {
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(bundleCache.getVersions());
+        } catch (Exception e) {
+            log.error("Error retrieving page versions: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error retrieving page versions", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get content values and active images for a page in one precomputed document (PUBLIC)
+     * GET /api/v1/pages/{pageName}/bundle[?v={version}]
+     *
+     * With the current version in ?v= the response is immutable and cached for a year;
+     * without it clients revalidate with If-None-Match.
+     */
+    @GetMapping("/{pageName}/bundle")
+    public ResponseEntity<?> getPageBundle(
+            @PathVariable String pageName,
+            @RequestParam(value = "v", required = false) String version,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            PageBundleCache.PageBundle bundle = bundleCache.get(pageName);
+
+            CacheControl cacheControl = bundle.getVersion().equals(version)
+                    ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                    : CacheControl.noCache();
+
+            boolean gzip = ContentNegotiation.accepts(acceptEncoding, "gzip");
+            String etag = gzip ? bundle.getGzipEtag() : bundle.getEtag();
+
+            if (bundle.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(cacheControl)
+                        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(MediaType.APPLICATION_JSON);
+
+            if (gzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(bundle.getGzip());
+            }
+            return response.body(bundle.getJson());
+        } catch (Exception e) {
+            log.error("Error retrieving page bundle: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error retrieving page bundle", e.getMessage()));
+        }
+    }
+}
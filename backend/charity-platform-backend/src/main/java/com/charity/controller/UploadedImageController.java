@@ -0,0 +1,39 @@
+package com.charity.controller;
+
+import com.charity.service.ImageFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = {
+        "http://localhost:3000",
+        "http://localhost:5500",
+        "http://localhost:8081",
+        "http://127.0.0.1:5500",
+        "http://127.0.0.1:3000",
+        "file://"
+})
+public class UploadedImageController {
+
+    private final ImageFileServer fileServer;
+
+    /**
+     * Serve an uploaded image or one of its variants (PUBLIC - no auth)
+     * GET /uploads/images/{fileName}?w=480
+     * Supports Range, If-None-Match / If-Modified-Since and Accept (avif/webp)
+     */
+    @RequestMapping(value = "/uploads/images/{*path}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serveImage(
+            @PathVariable String path,
+            @RequestParam(value = "w", required = false) Integer width,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        fileServer.serve(path, width, request, response);
+    }
+}
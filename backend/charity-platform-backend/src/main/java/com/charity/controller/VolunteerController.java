@@ -1,6 +1,8 @@
 package com.charity.controller;
 
+import com.charity.dto.request.VolunteerMatchRequest;
 import com.charity.dto.request.VolunteerRequest;
+import com.charity.dto.response.VolunteerMatchResponse;
 import com.charity.dto.response.VolunteerResponse;
 import com.charity.entity.Volunteer;
 import com.charity.entity.VolunteerStatus;
@@ -8,6 +10,7 @@ import com.charity.mapper.VolunteerMapper;
 import com.charity.service.VolunteerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -103,6 +106,32 @@ public class VolunteerController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Match volunteers with a boolean query
+     * GET /api/v1/volunteers/match?all=Education&all=Healthcare&ward=Kibra&status=ACTIVE&activeWithinDays=30
+     */
+    @GetMapping("/match")
+    public ResponseEntity<VolunteerMatchResponse> matchVolunteers(@Valid VolunteerMatchRequest request) {
+        Page<Volunteer> matches = volunteerService.matchVolunteers(
+                request.getAll(),
+                request.getAny(),
+                request.getExclude(),
+                request.getWard(),
+                request.getStatus(),
+                request.getActiveWithinDays(),
+                request.getPage(),
+                request.getSize());
+
+        return ResponseEntity.ok(VolunteerMatchResponse.builder()
+                .totalMatches((int) matches.getTotalElements())
+                .page(request.getPage())
+                .size(request.getSize())
+                .volunteers(matches.getContent().stream()
+                        .map(VolunteerMapper::toResponse)
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
     /**
      * Update volunteer
      */
@@ -16,5 +16,7 @@ public class BatchContentUpdateRequest {
     @Valid
     private List<ContentUpdateRequest> contents;
 
-    private String pageName;
+    private String pageName; // Default page for items without one
+
+    private BatchUpdateMode mode = BatchUpdateMode.ATOMIC;
 }
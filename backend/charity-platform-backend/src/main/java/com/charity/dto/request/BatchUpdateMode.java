@@ -0,0 +1,9 @@
+package com.charity.dto.request;
+
+/**
+ * How a batch content update handles invalid items
+ */
+public enum BatchUpdateMode {
+    ATOMIC,       // any invalid item rejects the whole batch; nothing is written
+    BEST_EFFORT   // invalid items are skipped and reported, the rest are written
+}
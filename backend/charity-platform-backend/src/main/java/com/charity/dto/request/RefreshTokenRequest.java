@@ -0,0 +1,10 @@
+package com.charity.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+    @NotBlank(message = "Refresh token is Required")
+    private String refreshToken;
+}
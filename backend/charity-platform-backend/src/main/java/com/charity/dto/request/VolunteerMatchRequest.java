@@ -0,0 +1,31 @@
+package com.charity.dto.request;
+
+import com.charity.entity.VolunteerStatus;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Boolean volunteer matching query
+ * e.g. all=Education&all=Healthcare&ward=Kibra&status=ACTIVE&activeWithinDays=30
+ */
+@Data
+public class VolunteerMatchRequest {
+    private List<String> all;      // must have every interest (AND)
+    private List<String> any;      // must have at least one interest (OR)
+    private List<String> exclude;  // must have none of these interests (NOT)
+    private List<String> ward;     // must be in one of these wards
+    private VolunteerStatus status;
+
+    @Min(value = 1, message = "activeWithinDays must be positive")
+    private Integer activeWithinDays;
+
+    @Min(value = 0, message = "Page must not be negative")
+    private int page = 0;
+
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 200, message = "Size must be at most 200")
+    private int size = 20;
+}
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class AdminLoginResponse {
 
-    private String token;
+    private String token;          // short-lived access token
+    private String refreshToken;   // rotating, single-use
     private String username;
     private String role;
     private LocalDateTime loginTime;
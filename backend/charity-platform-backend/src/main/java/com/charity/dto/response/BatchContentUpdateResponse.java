@@ -18,4 +18,5 @@ public class BatchContentUpdateResponse {
     private Integer failureCount;
     private List<ContentResponse> updatedContent;
     private List<String> errors;
+    private List<ContentUpdateResult> results;
 }
@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 public class ContentResponse {
+    // Field order = all-args constructor order, used by PageContentRepository.CONTENT_RESPONSE
     private Long id;
     private String contentKey;
     private String contentValue;
@@ -28,12 +29,19 @@ public class ContentResponse {
      * Convert PageContent entity to response DTO
      */
     public static ContentResponse fromEntity(PageContent content) {
+        return fromEntity(content, content.getUpdatedBy().getUsername());
+    }
+
+    /**
+     * Convert with a known editor username (avoids loading the AdminUser)
+     */
+    public static ContentResponse fromEntity(PageContent content, String updatedByUsername) {
         return ContentResponse.builder()
                 .id(content.getId())
                 .contentKey(content.getContentKey())
                 .contentValue(content.getContentValue())
                 .pageName(content.getPageName())
-                .updatedByUsername(content.getUpdatedBy().getUsername())
+                .updatedByUsername(updatedByUsername)
                 .updatedAt(content.getUpdatedAt())
                 .createdAt(content.getCreatedAt())
                 .description(content.getDescription())
@@ -0,0 +1,45 @@
+package com.charity.dto.response;
+
+import com.charity.entity.PageContentRevision;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContentRevisionResponse {
+    private String contentKey;
+    private Integer revision;
+    private String pageName;
+    private String operation;
+    private boolean keyframe;
+    private Integer storedBytes;   // Compressed payload size
+    private Integer valueLength;   // Full value length in chars
+    private String editedBy;
+    private String description;
+    private LocalDateTime createdAt;
+    private String contentValue;   // Only when a single revision is requested
+
+    /**
+     * Convert revision metadata (without the value)
+     */
+    public static ContentRevisionResponse fromEntity(PageContentRevision revision) {
+        return ContentRevisionResponse.builder()
+                .contentKey(revision.getContentKey())
+                .revision(revision.getRevision())
+                .pageName(revision.getPageName())
+                .operation(revision.getOperation())
+                .keyframe(revision.isKeyframe())
+                .storedBytes(revision.getPayload() != null ? revision.getPayload().length : 0)
+                .valueLength(revision.getValueLength())
+                .editedBy(revision.getEditedBy())
+                .description(revision.getDescription())
+                .createdAt(revision.getCreatedAt())
+                .build();
+    }
+}
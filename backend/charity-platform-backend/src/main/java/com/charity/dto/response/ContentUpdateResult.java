@@ -0,0 +1,20 @@
+package com.charity.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome for one key of a batch content update
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContentUpdateResult {
+    private String contentKey;
+    private String status;   // CREATED, UPDATED, UNCHANGED, FAILED
+    private String error;
+    private ContentResponse content;
+}
@@ -1,11 +1,15 @@
 package com.charity.dto.response;
 
 import com.charity.entity.Image;
+import com.charity.util.ImageVariants;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Data
 @Builder
@@ -13,6 +17,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class ImageResponse {
 
+    // Field order up to downloadCount = constructor order used by ImageRepository.IMAGE_RESPONSE
     private Long id;
     private String imageKey;
     private String imageName;
@@ -31,6 +36,38 @@ public class ImageResponse {
     private LocalDateTime updatedAt;
     private Integer downloadCount;
 
+    // Resized copies, smallest first, and a ready-made srcset ("url 480w, ...")
+    private List<ImageVariantResponse> variants;
+    private String srcset;
+
+    /**
+     * Projection constructor for ImageRepository.IMAGE_RESPONSE
+     */
+    public ImageResponse(Long id, String imageKey, String imageName, String fileUrl, Long fileSize,
+                         String mimeType, String extension, String pageName, String altText,
+                         String description, Integer width, Integer height, String status,
+                         String uploadedByUsername, LocalDateTime uploadedAt, LocalDateTime updatedAt,
+                         Integer downloadCount, String variantWidths) {
+        this.id = id;
+        this.imageKey = imageKey;
+        this.imageName = imageName;
+        this.fileUrl = fileUrl;
+        this.fileSize = fileSize;
+        this.mimeType = mimeType;
+        this.extension = extension;
+        this.pageName = pageName;
+        this.altText = altText;
+        this.description = description;
+        this.width = width;
+        this.height = height;
+        this.status = status;
+        this.uploadedByUsername = uploadedByUsername;
+        this.uploadedAt = uploadedAt;
+        this.updatedAt = updatedAt;
+        this.downloadCount = downloadCount;
+        applyVariants(variantWidths);
+    }
+
     /**
      * Convert Image entity to response DTO
      */
@@ -53,7 +90,31 @@ public class ImageResponse {
                 .uploadedAt(image.getUploadedAt())
                 .updatedAt(image.getUpdatedAt())
                 .downloadCount(image.getDownloadCount())
-                .build();
+                .build()
+                .applyVariants(image.getVariantWidths());
+    }
+
+    /**
+     * Fill variants and srcset from the stored width list
+     */
+    private ImageResponse applyVariants(String variantWidths) {
+        variants = new ArrayList<>();
+        for (int variantWidth : ImageVariants.parseWidths(variantWidths)) {
+            Integer variantHeight = width != null && height != null && width > 0
+                    ? Math.max(1, Math.round(height * (float) variantWidth / width))
+                    : null;
+            variants.add(new ImageVariantResponse(variantWidth, variantHeight,
+                    ImageVariants.variantName(fileUrl, variantWidth)));
+        }
+
+        List<String> candidates = variants.stream()
+                .map(v -> v.getUrl() + " " + v.getWidth() + "w")
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (width != null && !candidates.isEmpty()) {
+            candidates.add(fileUrl + " " + width + "w");
+        }
+        srcset = candidates.isEmpty() ? null : String.join(", ", candidates);
+        return this;
     }
 }
 
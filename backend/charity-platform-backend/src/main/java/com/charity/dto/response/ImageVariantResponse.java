@@ -0,0 +1,17 @@
+package com.charity.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One resized copy of an image
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariantResponse {
+    private Integer width;
+    private Integer height;
+    private String url;
+}
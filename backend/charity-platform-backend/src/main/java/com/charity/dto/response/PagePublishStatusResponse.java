@@ -0,0 +1,24 @@
+package com.charity.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Draft vs. live comparison for one page
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PagePublishStatusResponse {
+    private String pageName;
+    private PublishedPageResponse live;   // null if never published
+    private boolean upToDate;
+    private List<String> addedKeys;
+    private List<String> changedKeys;
+    private List<String> removedKeys;
+}
@@ -0,0 +1,34 @@
+package com.charity.dto.response;
+
+import com.charity.entity.PublishedPage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PublishedPageResponse {
+    private String pageName;
+    private Integer version;
+    private Integer keyCount;
+    private String publishedBy;
+    private LocalDateTime publishedAt;
+
+    /**
+     * Convert PublishedPage entity to response DTO (without the content)
+     */
+    public static PublishedPageResponse fromEntity(PublishedPage page) {
+        return PublishedPageResponse.builder()
+                .pageName(page.getPageName())
+                .version(page.getVersion())
+                .keyCount(page.getKeyCount())
+                .publishedBy(page.getPublishedBy())
+                .publishedAt(page.getPublishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.charity.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VolunteerMatchResponse {
+    private int totalMatches;
+    private int page;
+    private int size;
+    private List<VolunteerResponse> volunteers;
+}
@@ -0,0 +1,23 @@
+package com.charity.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VolunteerRecommendationResponse {
+    private Long volunteerId;
+    private String name;
+    private String ward;
+    private float score;          // 0.0 - 1.0
+    private boolean wardMatch;
+    private boolean interestMatch;
+    private int pastAttendance;
+    private LocalDateTime lastActiveAt;
+}
@@ -0,0 +1,57 @@
+package com.charity.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rotating refresh token for an admin session.
+ *
+ * Only the SHA-256 of the token is stored. Every refresh marks the row used
+ * and issues a successor in the same family; presenting a used token again
+ * is treated as theft and revokes the whole family.
+ */
+@Entity
+@Table(name = "admin_refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_admin", columnList = "admin_id"),
+        @Index(name = "idx_refresh_expires", columnList = "expires_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = "token_hash")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminRefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId; // One login session; also the "sid" claim of its access tokens
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "admin_id", nullable = false)
+    private AdminUser admin;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime usedAt;     // Set when rotated
+
+    private boolean revoked;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
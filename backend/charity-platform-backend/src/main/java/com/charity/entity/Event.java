@@ -10,11 +10,25 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(
+        name = Event.LIST_VIEW,
+        attributeNodes = {
+                @NamedAttributeNode("registeredVolunteerIds"),
+                @NamedAttributeNode("organizedBy"),
+                @NamedAttributeNode(value = "project", subgraph = "project")
+        },
+        subgraphs = @NamedSubgraph(name = "project", attributeNodes = @NamedAttributeNode("createdBy"))
+)
 @Table(name = "events")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Event {
+    /**
+     * Fetch plan for anything mapped with EventMapper.toResponse
+     */
+    public static final String LIST_VIEW = "Event.listView";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
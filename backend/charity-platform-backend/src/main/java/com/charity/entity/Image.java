@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @Table(name = "images", indexes = {
         @Index(name = "idx_image_key", columnList = "image_key"),
         @Index(name = "idx_page_name", columnList = "page_name"),
-        @Index(name = "idx_uploaded_by", columnList = "uploaded_by_id")
+        @Index(name = "idx_uploaded_by", columnList = "uploaded_by_id"),
+        @Index(name = "idx_image_file_name", columnList = "file_name")
 })
 @Data
 @NoArgsConstructor
@@ -32,7 +33,11 @@ public class Image {
 
     @NotBlank(message = "File name is required")
     @Column(length = 255)
-    private String fileName; // Stored filename: "img_1706010000_hero.jpg"
+    private String fileName; // Stored path: "ab/cd/<sha256>.jpg" (older uploads: "img_1706010000_hero.jpg")
+
+    // SHA-256 of the file; rows with the same content share one stored file
+    @Column(length = 64)
+    private String contentHash;
 
     @Column(columnDefinition = "LONGTEXT")
     private String fileUrl; // Full URL: "http://cdn.example.com/images/img_1706010000_hero.jpg"
@@ -60,6 +65,10 @@ public class Image {
     private Integer width; // Image width in pixels
     private Integer height; // Image height in pixels
 
+    // Widths of the resized variants ("160,480,960"); null = not processed yet, "" = none
+    @Column(length = 100)
+    private String variantWidths;
+
     @Column(columnDefinition = "VARCHAR(255) DEFAULT 'active'")
     private String status; // "active", "inactive", "archived"
 
@@ -70,7 +79,8 @@ public class Image {
     private LocalDateTime uploadedAt;
     private LocalDateTime updatedAt;
 
-    @Column(columnDefinition = "INT DEFAULT 0")
+    // Written only by ImageDownloadCounter's batched flush, never by entity saves
+    @Column(columnDefinition = "INT DEFAULT 0", updatable = false)
     private Integer downloadCount; // Track usage
 
     @PrePersist
@@ -0,0 +1,61 @@
+package com.charity.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent queue entry: generate the resized variants of one uploaded file.
+ *
+ * A job is deleted once it succeeds. Jobs left RUNNING by a crashed
+ * instance go back to PENDING after a timeout, so the queue survives
+ * restarts; FAILED jobs are kept for inspection.
+ */
+@Entity
+@Table(name = "image_variant_jobs", indexes = {
+        @Index(name = "idx_variant_job_status", columnList = "status, id"),
+        @Index(name = "idx_variant_job_image", columnList = "image_id")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImageVariantJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "image_id", nullable = false)
+    private Long imageId;
+
+    // The file the job was created for; a re-upload makes the job obsolete
+    @Column(nullable = false, length = 255)
+    private String sourceFileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImageVariantJobStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+// ==================== IMAGE VARIANT JOB STATUS ENUM ====================
+package com.charity.entity;
+
+public enum ImageVariantJobStatus {
+    PENDING,
+    RUNNING,
+    FAILED
+}
@@ -0,0 +1,74 @@
+package com.charity.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One append-only entry in the history of a content key.
+ *
+ * The payload is either a keyframe (the whole value) or a delta against
+ * the previous revision, both deflate-compressed (see TextDelta). A
+ * DELETE revision has no payload. The checksum is the CRC32 of the full
+ * value and is used to verify reconstruction.
+ */
+@Entity
+@Table(name = "page_content_revisions", indexes = {
+        @Index(name = "idx_revision_page_time", columnList = "page_name, created_at"),
+        @Index(name = "idx_revision_time", columnList = "created_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_revision_key_number", columnNames = {"content_key", "revision"})
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageContentRevision {
+
+    public static final String OP_UPSERT = "UPSERT";
+    public static final String OP_DELETE = "DELETE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_key", nullable = false, length = 255)
+    private String contentKey;
+
+    @Column(nullable = false)
+    private Integer revision; // 1, 2, 3... per content key
+
+    @Column(name = "page_name", length = 100)
+    private String pageName;
+
+    @Column(nullable = false, length = 10)
+    private String operation; // UPSERT or DELETE
+
+    private boolean keyframe;
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] payload;
+
+    private Long checksum;
+
+    private Integer valueLength; // Uncompressed length in chars
+
+    @Column(length = 500)
+    private String description;
+
+    @Column(length = 100)
+    private String editedBy; // Admin username (kept as text so history survives admin deletion)
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.charity.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One published version of a page: the complete key/value map, frozen as JSON.
+ *
+ * Rows are never updated. Publishing inserts the next version, and the live
+ * page is always the highest version, so a publish becomes visible all at
+ * once when its insert commits.
+ */
+@Entity
+@Table(name = "published_pages", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_published_page_version", columnNames = {"page_name", "version"})
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PublishedPage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "page_name", nullable = false, length = 100)
+    private String pageName;
+
+    @Column(nullable = false)
+    private Integer version;
+
+    // Sorted key -> value map as JSON
+    @Column(columnDefinition = "LONGTEXT", nullable = false)
+    private String contentJson;
+
+    private Integer keyCount;
+
+    @Column(length = 100)
+    private String publishedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime publishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        publishedAt = LocalDateTime.now();
+    }
+}
@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_users_phone", columnNames = "phone")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,7 +23,6 @@ public class User {
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
-    @Column(unique = true)
     private String email;
 
     @NotBlank(message = "Password is required")
@@ -31,7 +33,6 @@ public class User {
     private String fullName;
 
     @NotBlank(message = "Phone is required")
-    @Column(unique = true)
     private String phone;
 
     @Enumerated(EnumType.STRING)
@@ -10,11 +10,19 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "volunteers")
+@NamedEntityGraph(name = Volunteer.WITH_INTERESTS, attributeNodes = @NamedAttributeNode("interests"))
+@Table(name = "volunteers", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_volunteers_email", columnNames = "email")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Volunteer {
+    /**
+     * Fetch plan for anything mapped with VolunteerMapper.toResponse
+     */
+    public static final String WITH_INTERESTS = "Volunteer.withInterests";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -46,6 +54,8 @@ public class Volunteer {
 
     private LocalDateTime registeredAt;
 
+    // Written only by VolunteerActivityTracker's batched flush, never by entity saves
+    @Column(updatable = false)
     private LocalDateTime lastActiveAt;
 
     @PrePersist
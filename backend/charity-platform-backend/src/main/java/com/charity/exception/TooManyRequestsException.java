@@ -0,0 +1,17 @@
+package com.charity.exception;
+
+/**
+ * Thrown when a request is shed by rate limiting or a full work queue (HTTP 429)
+ */
+public class TooManyRequestsException extends CharityException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
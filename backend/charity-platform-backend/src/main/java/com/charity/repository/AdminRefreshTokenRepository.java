@@ -0,0 +1,50 @@
+package com.charity.repository;
+
+import com.charity.entity.AdminRefreshToken;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AdminRefreshTokenRepository extends JpaRepository<AdminRefreshToken, Long> {
+
+    /**
+     * Find a refresh token by its hash, with its admin
+     */
+    @EntityGraph(attributePaths = "admin")
+    Optional<AdminRefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Mark a token used; returns 0 if it was already used or revoked (lost race / replay)
+     */
+    @Modifying
+    @Query("UPDATE AdminRefreshToken t SET t.usedAt = :now WHERE t.id = :id AND t.usedAt IS NULL AND t.revoked = false")
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoke every token of a session
+     */
+    @Modifying
+    @Query("UPDATE AdminRefreshToken t SET t.revoked = true WHERE t.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * Revoke every token of an admin (deactivation, role or password change)
+     */
+    @Modifying
+    @Query("UPDATE AdminRefreshToken t SET t.revoked = true WHERE t.admin.id = :adminId")
+    int revokeAllForAdmin(@Param("adminId") Long adminId);
+
+    /**
+     * Remove expired tokens
+     */
+    @Modifying
+    @Query("DELETE FROM AdminRefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,8 +2,13 @@ package com.charity.repository;
 
 import com.charity.entity.AdminUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,4 +28,20 @@ public interface  AdminUserRepository extends JpaRepository<AdminUser, Long> {
      * Find all active admins
      */
     List<AdminUser> findByActiveTrue();
+
+    /**
+     * Record a successful login without writing back the rest of the (possibly stale) entity
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AdminUser a SET a.lastLogin = :now WHERE a.id = :id")
+    int updateLastLogin(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Replace a password hash only if it has not changed since it was read (rehash on login)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AdminUser a SET a.password = :newHash WHERE a.id = :id AND a.password = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -2,18 +2,34 @@
 package com.charity.repository;
 
 import com.charity.entity.*;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import  org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
+    /**
+     * Find an event with volunteers, organizer and project loaded (detail view)
+     */
+    @EntityGraph(Event.LIST_VIEW)
+    Optional<Event> findWithDetailsById(Long id);
+
+    /**
+     * Find all events with volunteers, organizer and project loaded (list view)
+     */
+    @EntityGraph(Event.LIST_VIEW)
+    @Query("SELECT e FROM Event e")
+    List<Event> findAllForListing();
+
     /**
      * Find events by status
      */
+    @EntityGraph(Event.LIST_VIEW)
     List<Event> findByStatus(EventStatus status);
 
     /**
@@ -24,11 +40,13 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     /**
      * Find events organized by a specific user
      */
+    @EntityGraph(Event.LIST_VIEW)
     List<Event> findByOrganizedBy(User organizedBy);
 
     /**
      * Find events linked to a specific project
      */
+    @EntityGraph(Event.LIST_VIEW)
     List<Event> findByProject(CharityProject project);
 
     /**
@@ -40,12 +58,14 @@ public interface EventRepository extends JpaRepository<Event, Long> {
      * Find upcoming events (not yet started)
      * Sorted by event date ascending
      */
+    @EntityGraph(Event.LIST_VIEW)
     @Query("SELECT e FROM Event e WHERE e.eventDate > :now ORDER BY e.eventDate ASC")
     List<Event> findUpcomingEvents(@Param("now") LocalDateTime now);
 
     /**
      * Find past events (already happened)
      */
+    @EntityGraph(Event.LIST_VIEW)
     @Query("SELECT e FROM Event e WHERE e.eventDate < :now ORDER BY e.eventDate DESC")
     List<Event> findPastEvents(@Param("now") LocalDateTime now);
 
@@ -66,4 +86,16 @@ public interface EventRepository extends JpaRepository<Event, Long> {
      * Count events by status
      */
     long countByStatus(EventStatus status);
+
+    /**
+     * IDs of volunteers registered for an event (without loading the event)
+     */
+    @Query("SELECT v FROM Event e JOIN e.registeredVolunteerIds v WHERE e.id = :eventId")
+    List<Long> findRegisteredVolunteerIds(@Param("eventId") Long eventId);
+
+    /**
+     * Number of registrations per volunteer on events with the given status: (volunteerId, count)
+     */
+    @Query("SELECT v, COUNT(e) FROM Event e JOIN e.registeredVolunteerIds v WHERE e.status = :status GROUP BY v")
+    List<Object[]> countRegistrationsByVolunteer(@Param("status") EventStatus status);
 }
@@ -1,16 +1,32 @@
 package com.charity.repository;
 
+import com.charity.dto.response.ImageResponse;
 import com.charity.entity.Image;
+import com.charity.entity.ImageVariantJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Long> {
 
+    /**
+     * ImageResponse built in SQL with the uploader's username joined in (no lazy AdminUser loads).
+     * Argument order must match the ImageResponse projection constructor.
+     */
+    String IMAGE_RESPONSE = "SELECT new com.charity.dto.response.ImageResponse(" +
+            "i.id, i.imageKey, i.imageName, i.fileUrl, i.fileSize, i.mimeType, i.extension, " +
+            "i.pageName, i.altText, i.description, i.width, i.height, i.status, u.username, " +
+            "i.uploadedAt, i.updatedAt, i.downloadCount, i.variantWidths) " +
+            "FROM Image i LEFT JOIN i.uploadedBy u ";
+
     /**
      * Find image by unique image key
      */
@@ -26,6 +42,37 @@ public interface ImageRepository extends JpaRepository<Image, Long> {
      */
     List<Image> findByPageNameAndStatus(String pageName, String status);
 
+    /**
+     * Images of a page with a given status as response DTOs, sorted by key (one query)
+     */
+    @Query(IMAGE_RESPONSE + "WHERE i.pageName = :pageName AND i.status = :status ORDER BY i.imageKey ASC")
+    List<ImageResponse> findResponsesByPageNameAndStatus(@Param("pageName") String pageName,
+                                                         @Param("status") String status);
+
+    /**
+     * All images of a page as response DTOs, sorted by key (one query)
+     */
+    @Query(IMAGE_RESPONSE + "WHERE i.pageName = :pageName ORDER BY i.imageKey ASC")
+    List<ImageResponse> findResponsesByPageName(@Param("pageName") String pageName);
+
+    /**
+     * Recent active uploads as response DTOs (one query)
+     */
+    @Query(IMAGE_RESPONSE + "WHERE i.status = 'active' ORDER BY i.uploadedAt DESC LIMIT 20")
+    List<ImageResponse> findRecentUploadResponses();
+
+    /**
+     * Names of all pages that have images
+     */
+    @Query("SELECT DISTINCT i.pageName FROM Image i")
+    List<String> findDistinctPageNames();
+
+    /**
+     * Per page: [pageName, active image count, latest active updatedAt], to detect image changes made on other nodes
+     */
+    @Query("SELECT i.pageName, COUNT(i), MAX(i.updatedAt) FROM Image i WHERE i.status = 'active' GROUP BY i.pageName")
+    List<Object[]> findActiveImageFingerprints();
+
     /**
      * Find all images for a page
      */
@@ -44,10 +91,63 @@ public interface ImageRepository extends JpaRepository<Image, Long> {
     List<Image> findRecentUploads();
 
     /**
-     * Search images by name or alt text
+     * Find all images for the given keys in one query (search results)
+     */
+    @EntityGraph(attributePaths = "uploadedBy")
+    List<Image> findByImageKeyIn(Collection<String> imageKeys);
+
+    /**
+     * Key, page, name, alt text, description and status of every image (search index bootstrap)
+     */
+    @Query("SELECT i.imageKey, i.pageName, i.imageName, i.altText, i.description, i.status FROM Image i")
+    List<Object[]> findSearchRows();
+
+    /**
+     * Record dimensions and variants on every image that uses a file (0 if none does any more)
+     */
+    @Modifying
+    @Query("UPDATE Image i SET i.width = :width, i.height = :height, i.variantWidths = :variantWidths, " +
+            "i.updatedAt = LOCAL DATETIME WHERE i.fileName = :fileName")
+    int updateVariants(@Param("fileName") String fileName,
+                       @Param("width") Integer width, @Param("height") Integer height,
+                       @Param("variantWidths") String variantWidths);
+
+    /**
+     * Images to (re)generate variants for, without an open job: [id, fileName]
+     */
+    @Query("SELECT i.id, i.fileName FROM Image i WHERE (:all = true OR i.variantWidths IS NULL) " +
+            "AND NOT EXISTS (SELECT j.id FROM ImageVariantJob j WHERE j.imageId = i.id AND j.status IN :open) " +
+            "ORDER BY i.id")
+    List<Object[]> findVariantBackfillCandidates(@Param("all") boolean all,
+                                                 @Param("open") Collection<ImageVariantJobStatus> open);
+
+    /**
+     * Number of images referencing a stored file (files are shared by content)
+     */
+    long countByFileName(String fileName);
+
+    /**
+     * An image sharing this file whose variants are already generated
+     */
+    Optional<Image> findFirstByFileNameAndVariantWidthsIsNotNull(String fileName);
+
+    /**
+     * Pages showing a stored file
+     */
+    @Query("SELECT DISTINCT i.pageName FROM Image i WHERE i.fileName = :fileName")
+    List<String> findPageNamesByFileName(@Param("fileName") String fileName);
+
+    /**
+     * Which of these stored files are referenced by an image (upload reconciler)
+     */
+    @Query("SELECT DISTINCT i.fileName FROM Image i WHERE i.fileName IN :fileNames")
+    List<String> findReferencedFileNames(@Param("fileNames") Collection<String> fileNames);
+
+    /**
+     * Next page of [id, fileName] after an id (upload reconciler, keyset pagination)
      */
-    @Query("SELECT i FROM Image i WHERE i.imageName LIKE CONCAT('%', :search, '%') OR i.altText LIKE CONCAT('%', :search, '%')")
-    List<Image> searchImages(@Param("search") String search);
+    @Query("SELECT i.id, i.fileName FROM Image i WHERE i.id > :afterId ORDER BY i.id")
+    List<Object[]> findFileNamesAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     /**
      * Get count of images for a page
@@ -55,8 +155,9 @@ public interface ImageRepository extends JpaRepository<Image, Long> {
     long countByPageName(String pageName);
 
     /**
-     * Get total storage used (sum of file sizes)
+     * Get total storage used (sum of file sizes, shared files counted once)
      */
-    @Query("SELECT COALESCE(SUM(i.fileSize), 0) FROM Image i")
+    @Query("SELECT COALESCE(SUM(i.fileSize), 0) FROM Image i " +
+            "WHERE i.id IN (SELECT MIN(j.id) FROM Image j GROUP BY j.fileName)")
     long getTotalStorageUsed();
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.charity.repository;
+
+import com.charity.entity.ImageVariantJob;
+import com.charity.entity.ImageVariantJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ImageVariantJobRepository extends JpaRepository<ImageVariantJob, Long> {
+
+    /**
+     * Oldest pending job ids
+     */
+    @Query("SELECT j.id FROM ImageVariantJob j WHERE j.status = com.charity.entity.ImageVariantJobStatus.PENDING ORDER BY j.id")
+    List<Long> findPendingIds(Pageable pageable);
+
+    /**
+     * Claim a pending job for this worker; 0 if another worker got it first
+     */
+    @Modifying
+    @Query("UPDATE ImageVariantJob j SET j.status = com.charity.entity.ImageVariantJobStatus.RUNNING, " +
+            "j.attempts = j.attempts + 1, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = com.charity.entity.ImageVariantJobStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Undo a claim that could not be handed to a worker
+     */
+    @Modifying
+    @Query("UPDATE ImageVariantJob j SET j.status = com.charity.entity.ImageVariantJobStatus.PENDING, " +
+            "j.attempts = j.attempts - 1 WHERE j.id = :id AND j.status = com.charity.entity.ImageVariantJobStatus.RUNNING")
+    int unclaim(@Param("id") Long id);
+
+    /**
+     * Hand a job back to the queue, or park it as failed
+     */
+    @Modifying
+    @Query("UPDATE ImageVariantJob j SET j.status = :status, j.lastError = :error, j.updatedAt = :now WHERE j.id = :id")
+    int release(@Param("id") Long id, @Param("status") ImageVariantJobStatus status,
+                @Param("error") String error, @Param("now") LocalDateTime now);
+
+    /**
+     * Requeue jobs whose worker died (crash, restart) while running them
+     */
+    @Modifying
+    @Query("UPDATE ImageVariantJob j SET j.status = com.charity.entity.ImageVariantJobStatus.PENDING, j.updatedAt = :now " +
+            "WHERE j.status = com.charity.entity.ImageVariantJobStatus.RUNNING AND j.updatedAt < :staleBefore")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+    /**
+     * Drop earlier failures once an image has been processed
+     */
+    @Modifying
+    @Query("DELETE FROM ImageVariantJob j WHERE j.imageId = :imageId AND j.status = com.charity.entity.ImageVariantJobStatus.FAILED")
+    int deleteFailedForImage(@Param("imageId") Long imageId);
+
+    long countByStatus(ImageVariantJobStatus status);
+}
@@ -1,21 +1,46 @@
 package com.charity.repository;
 
+import com.charity.dto.response.ContentResponse;
 import com.charity.entity.PageContent;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PageContentRepository extends JpaRepository<PageContent, Long> {
+
+    /**
+     * ContentResponse built in SQL with the editor's username joined in (no lazy AdminUser loads).
+     * Argument order must match the ContentResponse field order.
+     */
+    String CONTENT_RESPONSE = "SELECT new com.charity.dto.response.ContentResponse(" +
+            "p.id, p.contentKey, p.contentValue, p.pageName, u.username, " +
+            "p.updatedAt, p.createdAt, p.description, p.updateCount) " +
+            "FROM PageContent p LEFT JOIN p.updatedBy u ";
+
     /**
      * Find content by unique content key
      */
     Optional<PageContent> findByContentKey(String contentKey);
 
+    /**
+     * Find all content for the given keys in one query (batch updates)
+     */
+    @EntityGraph(attributePaths = "updatedBy")
+    List<PageContent> findByContentKeyIn(Collection<String> contentKeys);
+
+    /**
+     * Every row on a page plus the given keys wherever they live, in one query (page rollback)
+     */
+    @EntityGraph(attributePaths = "updatedBy")
+    List<PageContent> findByPageNameOrContentKeyIn(String pageName, Collection<String> contentKeys);
+
     /**
      * Check if content key exists
      */
@@ -26,12 +51,42 @@ public interface PageContentRepository extends JpaRepository<PageContent, Long>
      */
     List<PageContent> findByPageName(String pageName);
 
+    /**
+     * Key and value of every draft item on a page (publishing, no entities)
+     */
+    @Query("SELECT p.contentKey, p.contentValue FROM PageContent p WHERE p.pageName = :pageName")
+    List<Object[]> findAllKeyValuesByPageName(@Param("pageName") String pageName);
+
+    /**
+     * Names of all pages that have content
+     */
+    @Query("SELECT DISTINCT p.pageName FROM PageContent p")
+    List<String> findDistinctPageNames();
+
     /**
      * Find all content for a page, sorted by key
      */
     @Query("SELECT p FROM PageContent p WHERE p.pageName = :pageName ORDER BY p.contentKey ASC")
     List<PageContent> findByPageNameOrderByKey(@Param("pageName") String pageName);
 
+    /**
+     * Content of a page as response DTOs, sorted by key (one query)
+     */
+    @Query(CONTENT_RESPONSE + "WHERE p.pageName = :pageName ORDER BY p.contentKey ASC")
+    List<ContentResponse> findResponsesByPageName(@Param("pageName") String pageName);
+
+    /**
+     * Recent updates as response DTOs (one query)
+     */
+    @Query(CONTENT_RESPONSE + "ORDER BY p.updatedAt DESC LIMIT 20")
+    List<ContentResponse> findRecentUpdateResponses();
+
+    /**
+     * Single content item as a response DTO (one query)
+     */
+    @Query(CONTENT_RESPONSE + "WHERE p.contentKey = :contentKey")
+    Optional<ContentResponse> findResponseByContentKey(@Param("contentKey") String contentKey);
+
     /**
      * Find recent updates to any page
      */
@@ -45,10 +100,10 @@ public interface PageContentRepository extends JpaRepository<PageContent, Long>
     List<PageContent> findUpdatedByAdmin(@Param("adminId") Long adminId);
 
     /**
-     * Search content by key or value
+     * Key, page, value and description of every item (search index bootstrap, no entities)
      */
-    @Query("SELECT p FROM PageContent p WHERE p.contentKey LIKE CONCAT('%', :search, '%') OR p.contentValue LIKE CONCAT('%', :search, '%')")
-    List<PageContent> searchContent(@Param("search") String search);
+    @Query("SELECT p.contentKey, p.pageName, p.contentValue, p.description FROM PageContent p")
+    List<Object[]> findSearchRows();
 
     /**
      * Get content count for a page
@@ -0,0 +1,75 @@
+package com.charity.repository;
+
+import com.charity.entity.PageContentRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PageContentRevisionRepository extends JpaRepository<PageContentRevision, Long> {
+
+    /**
+     * Latest revision number and latest keyframe number per key: [contentKey, maxRevision, maxKeyframeRevision]
+     */
+    @Query("SELECT r.contentKey, MAX(r.revision), MAX(CASE WHEN r.keyframe = true THEN r.revision ELSE 0 END) " +
+            "FROM PageContentRevision r WHERE r.contentKey IN :keys GROUP BY r.contentKey")
+    List<Object[]> findHeads(@Param("keys") Collection<String> keys);
+
+    /**
+     * Newest keyframe at or before a revision
+     */
+    @Query("SELECT MAX(r.revision) FROM PageContentRevision r " +
+            "WHERE r.contentKey = :key AND r.keyframe = true AND r.revision <= :revision")
+    Optional<Integer> findKeyframeAtOrBefore(@Param("key") String key, @Param("revision") int revision);
+
+    /**
+     * The chain needed to rebuild a revision: keyframe .. target
+     */
+    List<PageContentRevision> findByContentKeyAndRevisionBetweenOrderByRevisionAsc(String contentKey, Integer from, Integer to);
+
+    /**
+     * Revision metadata for a key, newest first
+     */
+    List<PageContentRevision> findByContentKeyOrderByRevisionDesc(String contentKey);
+
+    /**
+     * Revisions on a page, newest first
+     */
+    List<PageContentRevision> findTop100ByPageNameOrderByCreatedAtDesc(String pageName);
+
+    /**
+     * Latest revision at or before an instant for every key that was ever on a page: [contentKey, revision]
+     */
+    @Query("SELECT r.contentKey, MAX(r.revision) FROM PageContentRevision r " +
+            "WHERE r.createdAt <= :at AND r.contentKey IN " +
+            "(SELECT DISTINCT p.contentKey FROM PageContentRevision p WHERE p.pageName = :pageName) " +
+            "GROUP BY r.contentKey")
+    List<Object[]> findRevisionsAt(@Param("pageName") String pageName, @Param("at") LocalDateTime at);
+
+    /**
+     * Rebuild chains for many keys in one query: for each key, its revisions at or before an
+     * instant, starting at the newest keyframe at or before it (ordered by key, then revision)
+     */
+    @Query("SELECT r FROM PageContentRevision r WHERE r.contentKey IN :keys AND r.createdAt <= :at " +
+            "AND r.revision >= COALESCE((SELECT MAX(k.revision) FROM PageContentRevision k " +
+            "WHERE k.contentKey = r.contentKey AND k.keyframe = true AND k.createdAt <= :at), 1) " +
+            "ORDER BY r.contentKey ASC, r.revision ASC")
+    List<PageContentRevision> findChainsAt(@Param("keys") Collection<String> keys, @Param("at") LocalDateTime at);
+
+    /**
+     * Find one revision
+     */
+    Optional<PageContentRevision> findByContentKeyAndRevision(String contentKey, Integer revision);
+
+    /**
+     * Content keys that have any history
+     */
+    @Query("SELECT DISTINCT r.contentKey FROM PageContentRevision r")
+    List<String> findAllContentKeys();
+}
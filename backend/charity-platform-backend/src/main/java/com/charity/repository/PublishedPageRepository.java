@@ -0,0 +1,47 @@
+package com.charity.repository;
+
+import com.charity.entity.PublishedPage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PublishedPageRepository extends JpaRepository<PublishedPage, Long> {
+
+    /**
+     * Live (highest) version of a page
+     */
+    Optional<PublishedPage> findTopByPageNameOrderByVersionDesc(String pageName);
+
+    /**
+     * Live version of every page in one query (snapshot bootstrap)
+     */
+    @Query("SELECT p FROM PublishedPage p WHERE p.version = " +
+            "(SELECT MAX(q.version) FROM PublishedPage q WHERE q.pageName = p.pageName)")
+    List<PublishedPage> findLiveVersions();
+
+    /**
+     * Live version number of every page as (pageName, version) rows; cheap enough to poll
+     */
+    @Query("SELECT p.pageName, MAX(p.version) FROM PublishedPage p GROUP BY p.pageName")
+    List<Object[]> findLiveVersionNumbers();
+
+    /**
+     * A specific published version
+     */
+    Optional<PublishedPage> findByPageNameAndVersion(String pageName, Integer version);
+
+    /**
+     * Publish history of a page, newest first
+     */
+    List<PublishedPage> findByPageNameOrderByVersionDesc(String pageName);
+
+    /**
+     * Names of all pages that have been published
+     */
+    @Query("SELECT DISTINCT p.pageName FROM PublishedPage p")
+    List<String> findDistinctPageNames();
+}
@@ -2,7 +2,11 @@ package com.charity.repository;
 
 import com.charity.entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +18,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Replace a password hash only if it has not changed since it was read (rehash on login)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
     /**
      * Find user by phone number
      */
@@ -48,4 +60,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Check if phone already exists
      */
     boolean existsByPhone(String phone);
+
+    /**
+     * All user emails (for the registration Bloom filter)
+     */
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
+
+    /**
+     * All user phone numbers (for the registration Bloom filter)
+     */
+    @Query("SELECT u.phone FROM User u")
+    List<String> findAllPhones();
 }
@@ -2,11 +2,13 @@
 package com.charity.repository;
 
 import com.charity.entity.*;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,31 +19,48 @@ public interface VolunteerRepository extends JpaRepository<Volunteer, Long> {
      */
     Optional<Volunteer> findByEmail(String email);
 
+    /**
+     * Find a volunteer with interests loaded (detail view)
+     */
+    @EntityGraph(Volunteer.WITH_INTERESTS)
+    Optional<Volunteer> findWithInterestsById(Long id);
+
+    /**
+     * Find volunteers by ID with interests loaded (list view)
+     */
+    @EntityGraph(Volunteer.WITH_INTERESTS)
+    List<Volunteer> findWithInterestsByIdIn(Collection<Long> ids);
+
     /**
      * Find all active volunteers
      */
+    @EntityGraph(Volunteer.WITH_INTERESTS)
     List<Volunteer> findByStatus(VolunteerStatus status);
 
     /**
      * Find all active volunteers (shortcut method)
      */
+    @EntityGraph(Volunteer.WITH_INTERESTS)
     List<Volunteer> findByStatusOrderByLastActiveAtDesc(VolunteerStatus status);
 
     /**
      * Find volunteers in a specific ward
      */
+    @EntityGraph(Volunteer.WITH_INTERESTS)
     List<Volunteer> findByWard(String ward);
 
     /**
      * Find volunteers by interest area
      * Custom query to search for interests in the collection
      */
+    @EntityGraph(Volunteer.WITH_INTERESTS)
     @Query("SELECT v FROM Volunteer v JOIN v.interests i WHERE i = :interest")
     List<Volunteer> findByInterest(@Param("interest") String interest);
 
     /**
      * Find recent volunteers (registered in last N days)
      */
+    @EntityGraph(Volunteer.WITH_INTERESTS)
     @Query("SELECT v FROM Volunteer v WHERE v.registeredAt >= :date")
     List<Volunteer> findRecentVolunteers(@Param("date") LocalDateTime date);
 
@@ -49,4 +68,22 @@ public interface VolunteerRepository extends JpaRepository<Volunteer, Long> {
      * Check if volunteer exists by email
      */
     boolean existsByEmail(String email);
+
+    /**
+     * All volunteer emails (for the registration Bloom filter)
+     */
+    @Query("SELECT v.email FROM Volunteer v")
+    List<String> findAllEmails();
+
+    /**
+     * Lightweight rows for the in-memory interest index: id, ward, status, lastActiveAt
+     */
+    @Query("SELECT v.id, v.ward, v.status, v.lastActiveAt FROM Volunteer v")
+    List<Object[]> findIndexRows();
+
+    /**
+     * All (volunteer id, interest) pairs for the in-memory interest index
+     */
+    @Query("SELECT v.id, i FROM Volunteer v JOIN v.interests i")
+    List<Object[]> findInterestRows();
 }
@@ -0,0 +1,114 @@
+package com.charity.security;
+
+import com.charity.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of authenticated admin principals keyed by username.
+ *
+ * Saves the AdminUserRepository.findByUsername lookup that
+ * JwtAuthenticationFilter would otherwise run on every Bearer request.
+ * AdminAuthService invalidates entries when an admin is deactivated or
+ * their role/password changes.
+ */
+@Component
+@Slf4j
+public class AdminPrincipalCache {
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.principal-cache.max-size:1000}")
+    private int maxSize;
+
+    private final Map<String, CachedPrincipal> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Return the cached principal or load (and cache) it
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = cache.get(username);
+        if (cached != null && cached.expiresAt > now) {
+            hits.increment();
+            return cached.principal;
+        }
+
+        misses.increment();
+        UserDetails principal = loader.apply(username);
+        if (cache.size() >= maxSize) {
+            evict(now);
+        }
+        cache.put(username, new CachedPrincipal(principal, now + ttlSeconds * 1000));
+        return principal;
+    }
+
+    /**
+     * Drop a principal now and again once the current transaction commits,
+     * so a request racing the commit cannot re-cache the old state
+     */
+    public void invalidate(String username) {
+        cache.remove(username);
+        invalidations.increment();
+        TransactionHooks.afterCommit(() -> cache.remove(username));
+    }
+
+    /**
+     * Hit-rate metrics
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    /**
+     * Make room: drop expired entries, or the one closest to expiry if none are expired
+     */
+    private void evict(long now) {
+        int before = cache.size();
+        cache.values().removeIf(entry -> entry.expiresAt <= now);
+
+        if (cache.size() >= maxSize) {
+            cache.entrySet().stream()
+                    .min((a, b) -> Long.compare(a.getValue().expiresAt, b.getValue().expiresAt))
+                    .ifPresent(oldest -> cache.remove(oldest.getKey()));
+        }
+        evictions.add(Math.max(0, before - cache.size()));
+    }
+
+    private static final class CachedPrincipal {
+        private final UserDetails principal;
+        private final long expiresAt;
+
+        private CachedPrincipal(UserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
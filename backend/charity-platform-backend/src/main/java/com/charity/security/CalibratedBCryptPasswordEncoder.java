@@ -0,0 +1,90 @@
+package com.charity.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder whose work factor is calibrated on the current machine.
+ *
+ * At startup the cost is chosen so one hash takes roughly the target time
+ * (never below the configured minimum). New hashes use that cost, and
+ * {@link #upgradeEncoding} reports stored hashes with a lower cost so they
+ * are re-hashed on the next successful login. Higher-cost hashes are kept:
+ * calibration differs slightly between nodes and restarts, and re-hashing
+ * downwards would flip hashes back and forth and weaken them.
+ * Existing hashes keep verifying whatever their cost.
+ */
+@Slf4j
+public class CalibratedBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final int CALIBRATION_COST = 8;
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int cost;
+
+    /**
+     * @param fixedCost    cost to use as-is, or 0 to calibrate
+     * @param targetMillis desired time for one hash
+     * @param minCost      lowest cost calibration may pick
+     * @param maxCost      highest cost calibration may pick
+     */
+    public CalibratedBCryptPasswordEncoder(int fixedCost, long targetMillis, int minCost, int maxCost) {
+        this.cost = fixedCost > 0 ? fixedCost : calibrate(targetMillis, minCost, maxCost);
+        this.delegate = new BCryptPasswordEncoder(cost);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    /**
+     * True when a stored hash was made with a lower cost than the calibrated one
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher m = BCRYPT_COST.matcher(encodedPassword);
+        return m.find() && Integer.parseInt(m.group(1)) < cost;
+    }
+
+    /**
+     * Time a cheap cost and extrapolate: each extra cost step doubles the work
+     */
+    private static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_COST);
+        probe.encode("warm-up");
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration-" + i);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double probeMillis = Math.max(best / 1e6, 0.01);
+        int steps = (int) Math.round(Math.log(targetMillis / probeMillis) / Math.log(2));
+        int chosen = Math.max(minCost, Math.min(maxCost, CALIBRATION_COST + steps));
+
+        log.info("BCrypt cost calibrated to {} (~{} ms per hash, target {} ms)",
+                chosen, Math.round(probeMillis * Math.pow(2, chosen - CALIBRATION_COST)), targetMillis);
+        return chosen;
+    }
+}
@@ -1,6 +1,7 @@
 package com.charity.security;
 
 import com.charity.config.JwtUtil;
+import com.charity.config.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,6 +32,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final AdminPrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -51,16 +53,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             // 3. Extract JWT token (remove "Bearer " prefix)
             final String jwt = authHeader.substring(7);
-            final String username = jwtUtil.extractUsername(jwt);
+
+            // Parse + verify signature once; throws if invalid, expired or revoked
+            final VerifiedToken verified = jwtUtil.verify(jwt);
+            final String username = verified.getSubject();
 
             // 4. Validate token and set authentication
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                // Load user details from database
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                // The role claim is only trusted if the (cached) admin record still has it:
+                // the cache loader rejects disabled accounts, and a role change makes them differ.
+                // Revocations are per node, so this bounds staleness on other nodes to the cache TTL.
+                String role = verified.getClaims().get(JwtUtil.CLAIM_ROLE, String.class);
+                UserDetails userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
+                boolean roleCurrent = role == null || userDetails.getAuthorities().stream()
+                        .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role));
 
-                // Validate token
-                if (jwtUtil.validateToken(jwt, username)) {
+                // Token was verified above; just guard against expiry since verification
+                if (userDetails.isEnabled() && roleCurrent && !verified.isExpired()) {
 
                     // Create authentication token
                     UsernamePasswordAuthenticationToken authToken =
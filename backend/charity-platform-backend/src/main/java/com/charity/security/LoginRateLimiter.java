@@ -0,0 +1,131 @@
+package com.charity.security;
+
+import com.charity.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-IP and per-username token buckets in front of the login endpoints.
+ *
+ * Checked before any password hashing is queued, so a single client or a
+ * credential-stuffing run against one account is turned away cheaply.
+ */
+@Component
+@Slf4j
+public class LoginRateLimiter {
+
+    @Value("${security.login-rate.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${security.login-rate.ip.per-minute:10}")
+    private double ipPerMinute;
+
+    @Value("${security.login-rate.username.capacity:5}")
+    private int usernameCapacity;
+
+    @Value("${security.login-rate.username.per-minute:5}")
+    private double usernamePerMinute;
+
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> usernameBuckets = new ConcurrentHashMap<>();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limitedByIp = new LongAdder();
+    private final LongAdder limitedByUsername = new LongAdder();
+
+    /**
+     * Take one token from the client's IP bucket and the username's bucket
+     *
+     * @throws TooManyRequestsException if either bucket is empty
+     */
+    public void checkLogin(String clientIp, String username) {
+        long now = System.nanoTime();
+
+        if (clientIp != null) {
+            TokenBucket bucket = ipBuckets.computeIfAbsent(clientIp, k -> new TokenBucket(ipCapacity, ipPerMinute, now));
+            long retryAfter = bucket.tryConsume(now);
+            if (retryAfter > 0) {
+                limitedByIp.increment();
+                log.warn("Login rate limit hit for IP {}", clientIp);
+                throw new TooManyRequestsException("Too many login attempts, please try again later", retryAfter);
+            }
+        }
+
+        if (username != null) {
+            String key = username.trim().toLowerCase(Locale.ROOT);
+            TokenBucket bucket = usernameBuckets.computeIfAbsent(key, k -> new TokenBucket(usernameCapacity, usernamePerMinute, now));
+            long retryAfter = bucket.tryConsume(now);
+            if (retryAfter > 0) {
+                limitedByUsername.increment();
+                log.warn("Login rate limit hit for username {}", key);
+                throw new TooManyRequestsException("Too many login attempts, please try again later", retryAfter);
+            }
+        }
+
+        allowed.increment();
+    }
+
+    /**
+     * Drop buckets that have refilled completely (idle clients)
+     */
+    @Scheduled(fixedDelay = 300_000)
+    public void purgeIdleBuckets() {
+        long now = System.nanoTime();
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        usernameBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("allowed", allowed.sum());
+        stats.put("limitedByIp", limitedByIp.sum());
+        stats.put("limitedByUsername", limitedByUsername.sum());
+        stats.put("trackedIps", ipBuckets.size());
+        stats.put("trackedUsernames", usernameBuckets.size());
+        return stats;
+    }
+
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        private TokenBucket(int capacity, double perMinute, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = perMinute / 60e9;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise seconds until one is available
+         */
+        private synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano / 1e9));
+        }
+
+        private synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.charity.service;
 
 import com.charity.config.JwtUtil;
+import com.charity.config.VerifiedToken;
 import com.charity.dto.request.AdminLoginRequest;
 import com.charity.dto.response.AdminLoginResponse;
+import com.charity.entity.AdminRole;
 import com.charity.entity.AdminUser;
 import com.charity.exception.AdminAuthException;
 import com.charity.repository.AdminUserRepository;
+import com.charity.security.AdminPrincipalCache;
+import com.charity.security.PasswordHashingExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -22,14 +26,22 @@ public class AdminAuthService {
     private AdminUserRepository adminUserRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private JwtUtil jwtUtil;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private AdminPrincipalCache principalCache;
+
+    @Autowired
+    private PasswordHashingExecutor hashingExecutor;
+
+    @Autowired
+    private AdminRefreshTokenService refreshTokenService;
 
     /**
-     * Authenticate admin user and generate JWT token
+     * Authenticate admin user and generate JWT token.
+     * Runs outside a transaction so no DB connection is held while waiting on the hashing pool.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AdminLoginResponse login(AdminLoginRequest request) {
 
         // Step 1: Find admin by username
@@ -46,28 +58,38 @@ public class AdminAuthService {
         }
 
         // Step 3: Verify password
-        if (!passwordEncoder.matches(request.getPassword(), admin.getPassword())) {
+        if (!hashingExecutor.matches(request.getPassword(), admin.getPassword())) {
             log.warn("Failed login attempt for admin: {}", request.getUsername());
             throw new AdminAuthException("Invalid credentials");
         }
 
+        // Re-hash at the calibrated cost if the stored hash uses a different one
+        if (hashingExecutor.needsRehash(admin.getPassword())) {
+            Long adminId = admin.getId();
+            String oldHash = admin.getPassword();
+            hashingExecutor.rehashAsync(request.getPassword(),
+                    newHash -> adminUserRepository.replacePasswordHash(adminId, oldHash, newHash));
+        }
+
         // Step 4: Update last login timestamp
-        admin.setLastLogin(LocalDateTime.now());
-        adminUserRepository.save(admin);
+        // Targeted update: saving the detached entity could overwrite a concurrent rehash
+        adminUserRepository.updateLastLogin(admin.getId(), LocalDateTime.now());
         log.info("Admin logged in successfully: {}", admin.getUsername());
 
-        // Step 5: Generate JWT token (10 hours validity)
-        String token = jwtUtil.generateToken(admin.getUsername());
+        // Step 5: Start a session: refresh token + short-lived access token
+        AdminRefreshTokenService.IssuedToken refreshToken = refreshTokenService.issue(admin);
 
         // Step 6: Return response
-        return AdminLoginResponse.builder()
-                .token(token)
-                .username(admin.getUsername())
-                .role(admin.getRole().toString())
-                .loginTime(LocalDateTime.now())
-                .expiresIn(10 * 60 * 60L) // 10 hours in seconds
-                .message("Login successful")
-                .build();
+        return buildResponse(refreshToken, "Login successful");
+    }
+
+    /**
+     * Exchange a refresh token for a new access token (the refresh token is rotated)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AdminLoginResponse refresh(String refreshToken) {
+        AdminRefreshTokenService.IssuedToken rotated = refreshTokenService.rotate(refreshToken);
+        return buildResponse(rotated, "Token refreshed");
     }
 
     /**
@@ -84,8 +106,28 @@ public class AdminAuthService {
     }
 
     /**
-     * Create new admin user (SUPER_ADMIN only)
+     * Log out: revoke the token until it expires
      */
+    public void logout(String token) {
+        VerifiedToken revoked;
+        try {
+            revoked = jwtUtil.revokeToken(token);
+        } catch (Exception e) {
+            throw new AdminAuthException("Invalid or expired token");
+        }
+
+        // End the whole session so its refresh token cannot mint new access tokens
+        String sessionId = revoked.getClaims().get(JwtUtil.CLAIM_SESSION_ID, String.class);
+        if (sessionId != null) {
+            refreshTokenService.revokeFamily(sessionId);
+        }
+    }
+
+    /**
+     * Create new admin user (SUPER_ADMIN only).
+     * Hashes outside a transaction; the save runs in the repository's own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AdminUser createAdmin(String username, String password, String role) {
 
         // Check if username already exists
@@ -95,8 +137,8 @@ public class AdminAuthService {
 
         AdminUser admin = new AdminUser();
         admin.setUsername(username);
-        admin.setPassword(passwordEncoder.encode(password));
-        admin.setRole(com.charity.entity.AdminRole.valueOf(role));
+        admin.setPassword(hashingExecutor.encode(password));
+        admin.setRole(AdminRole.valueOf(role));
 
         AdminUser saved = adminUserRepository.save(admin);
         log.info("New admin created: {}", username);
@@ -113,6 +155,24 @@ public class AdminAuthService {
 
         admin.setActive(false);
         adminUserRepository.save(admin);
+        principalCache.invalidate(admin.getUsername());
+        refreshTokenService.revokeAll(admin);
         log.info("Admin deactivated: {}", admin.getUsername());
     }
+
+    private AdminLoginResponse buildResponse(AdminRefreshTokenService.IssuedToken session, String message) {
+        AdminUser admin = session.getAdmin();
+        String accessToken = jwtUtil.generateAccessToken(
+                admin.getUsername(), admin.getId(), admin.getRole().name(), session.getFamilyId());
+
+        return AdminLoginResponse.builder()
+                .token(accessToken)
+                .refreshToken(session.getToken())
+                .username(admin.getUsername())
+                .role(admin.getRole().toString())
+                .loginTime(LocalDateTime.now())
+                .expiresIn(jwtUtil.getAccessTokenTtlSeconds())
+                .message(message)
+                .build();
+    }
 }
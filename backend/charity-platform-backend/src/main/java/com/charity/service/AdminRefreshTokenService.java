@@ -0,0 +1,144 @@
+package com.charity.service;
+
+import com.charity.config.JwtUtil;
+import com.charity.entity.AdminRefreshToken;
+import com.charity.entity.AdminUser;
+import com.charity.exception.AdminAuthException;
+import com.charity.repository.AdminRefreshTokenRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates admin refresh tokens (stored hashed, see {@link AdminRefreshToken})
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class AdminRefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final AdminRefreshTokenRepository refreshTokenRepository;
+    private final JwtUtil jwtUtil;
+
+    @Value("${jwt.refresh-token-ttl-days:14}")
+    private long refreshTokenTtlDays;
+
+    /**
+     * Start a new session for an admin and return its first refresh token
+     */
+    public IssuedToken issue(AdminUser admin) {
+        return issue(admin, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for its successor.
+     * Reusing an already-rotated token revokes the whole session.
+     */
+    @Transactional(noRollbackFor = AdminAuthException.class)
+    public IssuedToken rotate(String rawToken) {
+        AdminRefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new AdminAuthException("Invalid refresh token"));
+        AdminUser admin = current.getAdmin();
+
+        if (current.isRevoked()) {
+            throw new AdminAuthException("Refresh token has been revoked");
+        }
+        if (refreshTokenRepository.markUsed(current.getId(), LocalDateTime.now()) == 0) {
+            log.warn("Refresh token reuse detected for admin {}, revoking session", admin.getUsername());
+            revokeSession(current.getFamilyId(), admin.getUsername());
+            throw new AdminAuthException("Refresh token has already been used");
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new AdminAuthException("Refresh token has expired");
+        }
+        if (!admin.isActive()) {
+            throw new AdminAuthException("Admin account is disabled");
+        }
+
+        return issue(admin, current.getFamilyId());
+    }
+
+    /**
+     * Revoke one session (logout)
+     */
+    public void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    /**
+     * Revoke every session of an admin, including access tokens already handed out
+     */
+    public void revokeAll(AdminUser admin) {
+        refreshTokenRepository.revokeAllForAdmin(admin.getId());
+        jwtUtil.revokeAllIssuedBefore(admin.getUsername());
+    }
+
+    /**
+     * Daily cleanup of expired refresh tokens
+     */
+    @Scheduled(cron = "${jwt.refresh-token-purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int removed = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Removed {} expired refresh tokens", removed);
+        }
+    }
+
+    private void revokeSession(String familyId, String username) {
+        refreshTokenRepository.revokeFamily(familyId);
+        // Access tokens of the session cannot be told apart cheaply, so cut off all of them
+        jwtUtil.revokeAllIssuedBefore(username);
+    }
+
+    private IssuedToken issue(AdminUser admin, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        AdminRefreshToken token = new AdminRefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setAdmin(admin);
+        token.setExpiresAt(LocalDateTime.now().plusDays(refreshTokenTtlDays));
+        refreshTokenRepository.save(token);
+
+        return new IssuedToken(rawToken, familyId, admin);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A freshly issued refresh token (raw value is only ever returned here)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class IssuedToken {
+        private final String token;
+        private final String familyId;
+        private final AdminUser admin;
+    }
+}
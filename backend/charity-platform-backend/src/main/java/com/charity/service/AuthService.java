@@ -8,9 +8,10 @@ import com.charity.entity.User;
 import com.charity.exception.UserAlreadyExistsException;
 import com.charity.mapper.UserMapper;
 import com.charity.repository.UserRepository;
+import com.charity.security.PasswordHashingExecutor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -19,28 +20,47 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final RegistrationUniquenessGuard uniquenessGuard;
 
+    // No transaction: hash before saveNewUser opens one, so the wait doesn't hold a DB connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User register(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (uniquenessGuard.mightContainUserEmail(request.getEmail())
+                && userRepository.existsByEmail(request.getEmail())) {
             throw new UserAlreadyExistsException("Error: Email is already in use!");
         }
 
+        if (uniquenessGuard.mightContainUserPhone(request.getPhone())
+                && userRepository.existsByPhone(request.getPhone())) {
+            throw new UserAlreadyExistsException("Error: Phone is already in use!");
+        }
+
         User user = UserMapper.toEntity(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(hashingExecutor.encode(request.getPassword()));
 
-        return userRepository.save(user);
+        return userService.saveNewUser(user);
     }
 
+    // No transaction: don't hold a DB connection while waiting on the hashing pool
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LoginResponse login(LoginRequest request) {
         User user = userService.getUserByEmail(request.getEmail());
 
-        if (!userService.verifyPassword(request.getPassword(), user.getPassword())) {
+        if (!hashingExecutor.matches(request.getPassword(), user.getPassword())) {
             throw new IllegalArgumentException("Error: Invalid email or password");
         }
 
+        // Re-hash at the calibrated cost if the stored hash uses a different one
+        if (hashingExecutor.needsRehash(user.getPassword())) {
+            Long userId = user.getId();
+            String oldHash = user.getPassword();
+            hashingExecutor.rehashAsync(request.getPassword(),
+                    newHash -> userRepository.replacePasswordHash(userId, oldHash, newHash));
+        }
+
         if (!user.isApproved()) {
             throw new IllegalStateException("Error: Your account is pending approval");
         }
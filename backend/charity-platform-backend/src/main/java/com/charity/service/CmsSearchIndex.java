@@ -0,0 +1,693 @@
+package com.charity.service;
+
+import com.charity.entity.Image;
+import com.charity.entity.PageContent;
+import com.charity.repository.ImageRepository;
+import com.charity.repository.PageContentRepository;
+import com.charity.util.TransactionHooks;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over CMS content and images (admin search).
+ *
+ * Each term maps to a sorted list of document IDs and each document keeps
+ * its term positions, so a query is a few list merges into a bitmap plus
+ * BM25 scoring of the survivors instead of a LIKE '%...%' scan over LONGTEXT.
+ *
+ * - Plain words match exactly or as a prefix ("volunt" finds "volunteers").
+ * - Quoted text is a phrase and must appear in order.
+ * - Words with no exact/prefix hit fall back to terms within one edit
+ *   (two for long words), found through a trigram index over the vocabulary.
+ *
+ * Like VolunteerInterestIndex it is loaded at startup and updated after
+ * each write commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CmsSearchIndex {
+
+    public static final String TYPE_CONTENT = "content";
+    public static final String TYPE_IMAGE = "image";
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final double FUZZY_WEIGHT = 0.5;
+    private static final double TITLE_BOOST = 1.5;
+    private static final double ADJACENT_BOOST = 1.5;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_FUZZY_EXPANSIONS = 16;
+    private static final int FIELD_GAP = 100;
+    private static final int SNIPPET_LENGTH = 160;
+
+    private final PageContentRepository contentRepository;
+    private final ImageRepository imageRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Sorted so prefix queries are a subMap; sparse lists, since most terms are rare
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private final Map<String, BitSet> byType = new HashMap<>();
+    private final Map<String, BitSet> byPage = new HashMap<>();
+    private final BitSet allDocs = new BitSet();
+    private final Map<String, Integer> idsByRef = new HashMap<>();
+    private final List<IndexedDoc> docs = new ArrayList<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private long totalLength;
+
+    // Writes applied while rebuild() reads rows outside the lock; replayed on top of the loaded state
+    private List<Runnable> writesDuringRebuild;
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryMicros = new LongAdder();
+
+    /**
+     * Load every content item and image (two projection queries).
+     * Updates that commit while the rows are being read are replayed afterwards, so none are lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<IndexedDoc> loaded = new ArrayList<>();
+        List<Runnable> replay;
+        try {
+            for (Object[] row : contentRepository.findSearchRows()) {
+                loaded.add(contentDoc((String) row[0], (String) row[1], (String) row[2], (String) row[3]));
+            }
+            for (Object[] row : imageRepository.findSearchRows()) {
+                loaded.add(imageDoc((String) row[0], (String) row[1], (String) row[2],
+                        (String) row[3], (String) row[4], (String) row[5]));
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                replay = writesDuringRebuild;
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByTrigram.clear();
+            byType.clear();
+            byPage.clear();
+            allDocs.clear();
+            idsByRef.clear();
+            docs.clear();
+            freeIds.clear();
+            totalLength = 0;
+            loaded.forEach(this::add);
+            replay.forEach(Runnable::run);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index loaded: {} documents, {} terms ({} concurrent updates replayed)",
+                loaded.size(), postings.size(), replay.size());
+    }
+
+    /**
+     * Index (or re-index) a content item once the current transaction commits
+     */
+    public void indexContent(PageContent content) {
+        IndexedDoc doc = contentDoc(content.getContentKey(), content.getPageName(),
+                content.getContentValue(), content.getDescription());
+        TransactionHooks.afterCommit(() -> replace(doc));
+    }
+
+    /**
+     * Drop a content item once the current transaction commits
+     */
+    public void removeContent(String contentKey) {
+        TransactionHooks.afterCommit(() -> remove(TYPE_CONTENT, contentKey));
+    }
+
+    /**
+     * Index (or re-index) an image once the current transaction commits
+     */
+    public void indexImage(Image image) {
+        IndexedDoc doc = imageDoc(image.getImageKey(), image.getPageName(), image.getImageName(),
+                image.getAltText(), image.getDescription(), image.getStatus());
+        TransactionHooks.afterCommit(() -> replace(doc));
+    }
+
+    /**
+     * Drop an image once the current transaction commits
+     */
+    public void removeImage(String imageKey) {
+        TransactionHooks.afterCommit(() -> remove(TYPE_IMAGE, imageKey));
+    }
+
+    /**
+     * Ranked search; every word (or phrase) must match
+     *
+     * @param type     TYPE_CONTENT, TYPE_IMAGE, or null for both
+     * @param pageName restrict to one page, or null
+     */
+    public SearchResult search(String query, String type, String pageName, int page, int size) {
+        long started = System.nanoTime();
+        List<String> words = new ArrayList<>();
+        List<List<String>> phrases = new ArrayList<>();
+        parse(query, words, phrases);
+
+        lock.readLock().lock();
+        try {
+            if (words.isEmpty() && phrases.isEmpty()) {
+                return new SearchResult(0, page, size, List.of(), 0);
+            }
+
+            int docCount = allDocs.cardinality();
+            BitSet candidates = (BitSet) (type != null ? byType.getOrDefault(type, new BitSet()) : allDocs).clone();
+            if (pageName != null) {
+                candidates.and(byPage.getOrDefault(pageName, new BitSet()));
+            }
+
+            // Each word must match one of its expansions (exact, prefix or fuzzy)
+            List<List<Expansion>> expanded = new ArrayList<>();
+            for (String word : words) {
+                List<Expansion> expansions = expand(word, true, docCount);
+                candidates.and(union(expansions));
+                expanded.add(expansions);
+            }
+            // Phrase words match exactly and in order
+            for (List<String> phrase : phrases) {
+                for (String word : phrase) {
+                    List<Expansion> expansions = expand(word, false, docCount);
+                    candidates.and(union(expansions));
+                    expanded.add(expansions);
+                }
+                for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                    if (!docs.get(id).containsPhrase(phrase)) {
+                        candidates.clear(id);
+                    }
+                }
+            }
+
+            // Score the survivors, keep the top (page + 1) * size
+            int keep = (int) Math.min((long) (page + 1) * size, Integer.MAX_VALUE);
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(Comparator.comparingDouble(ScoredDoc::getScore));
+            double avgLength = docCount == 0 ? 1 : (double) totalLength / docCount;
+            int total = 0;
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                IndexedDoc doc = docs.get(id);
+                double score = score(doc, expanded, avgLength);
+                if (words.size() > 1 && doc.containsPhrase(words)) {
+                    score *= ADJACENT_BOOST;
+                }
+                total++;
+                if (top.size() < keep) {
+                    top.offer(new ScoredDoc(id, score));
+                } else if (score > top.peek().getScore()) {
+                    top.poll();
+                    top.offer(new ScoredDoc(id, score));
+                }
+            }
+
+            List<ScoredDoc> ranked = new ArrayList<>(top);
+            ranked.sort(Comparator.comparingDouble(ScoredDoc::getScore).reversed());
+            List<SearchHit> hits = new ArrayList<>();
+            for (long i = (long) page * size; i < ranked.size(); i++) {
+                ScoredDoc scored = ranked.get((int) i);
+                IndexedDoc doc = docs.get(scored.getId());
+                hits.add(new SearchHit(doc.type, doc.key, doc.pageName, doc.status, doc.title, doc.snippet,
+                        Math.round(scored.getScore() * 1000) / 1000.0));
+            }
+
+            long micros = (System.nanoTime() - started) / 1000;
+            queries.increment();
+            queryMicros.add(micros);
+            return new SearchResult(total, page, size, hits, micros);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("documents", allDocs.cardinality());
+            stats.put("terms", postings.size());
+            stats.put("trigrams", termsByTrigram.size());
+            long count = queries.sum();
+            stats.put("queries", count);
+            stats.put("avgQueryMicros", count == 0 ? 0 : queryMicros.sum() / count);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Index maintenance (write lock held by callers of add/remove) =====
+
+    private void replace(IndexedDoc doc) {
+        apply(() -> {
+            removeLocked(doc.type, doc.key);
+            add(doc);
+        });
+    }
+
+    private void remove(String type, String key) {
+        apply(() -> removeLocked(type, key));
+    }
+
+    /**
+     * Apply a write now, and remember it for replay if a rebuild is reading rows
+     */
+    private void apply(Runnable write) {
+        lock.writeLock().lock();
+        try {
+            write.run();
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(IndexedDoc doc) {
+        int id;
+        if (freeIds.isEmpty()) {
+            id = docs.size();
+            docs.add(doc);
+        } else {
+            id = freeIds.pop();
+            docs.set(id, doc);
+        }
+        idsByRef.put(doc.type + ":" + doc.key, id);
+        for (String term : doc.positions.keySet()) {
+            postings.computeIfAbsent(term, t -> {
+                trigrams(t).forEach(g -> termsByTrigram.computeIfAbsent(g, x -> new HashSet<>()).add(t));
+                return new PostingList();
+            }).add(id);
+        }
+        byType.computeIfAbsent(doc.type, t -> new BitSet()).set(id);
+        if (doc.pageName != null) {
+            byPage.computeIfAbsent(doc.pageName, p -> new BitSet()).set(id);
+        }
+        allDocs.set(id);
+        totalLength += doc.length;
+    }
+
+    private void removeLocked(String type, String key) {
+        Integer id = idsByRef.remove(type + ":" + key);
+        if (id == null) {
+            return;
+        }
+        IndexedDoc doc = docs.get(id);
+        for (String term : doc.positions.keySet()) {
+            PostingList list = postings.get(term);
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(term);
+                for (String gram : trigrams(term)) {
+                    Set<String> terms = termsByTrigram.get(gram);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        termsByTrigram.remove(gram);
+                    }
+                }
+            }
+        }
+        clearBit(byType, doc.type, id);
+        if (doc.pageName != null) {
+            clearBit(byPage, doc.pageName, id);
+        }
+        allDocs.clear(id);
+        totalLength -= doc.length;
+        docs.set(id, null);
+        freeIds.push(id);
+    }
+
+    private static void clearBit(Map<String, BitSet> map, String key, int id) {
+        BitSet bits = map.get(key);
+        if (bits != null) {
+            bits.clear(id);
+            if (bits.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    // ===== Query evaluation (read lock held) =====
+
+    private List<Expansion> expand(String word, boolean allowApproximate, int docCount) {
+        List<Expansion> expansions = new ArrayList<>();
+        if (postings.containsKey(word)) {
+            expansions.add(expansion(word, 1.0, docCount));
+        }
+        if (!allowApproximate) {
+            return expansions;
+        }
+
+        if (word.length() >= 2) {
+            for (String term : postings.subMap(word, false, word + Character.MAX_VALUE, false).keySet()) {
+                if (expansions.size() >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                expansions.add(expansion(term, PREFIX_WEIGHT, docCount));
+            }
+        }
+
+        // Typo tolerance only when nothing matched literally
+        if (expansions.isEmpty() && word.length() >= 4) {
+            int maxEdits = word.length() >= 8 ? 2 : 1;
+            List<String> grams = trigrams(word);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                for (String term : termsByTrigram.getOrDefault(gram, Set.of())) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+            // One edit changes at most three padded trigrams
+            int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+            shared.entrySet().stream()
+                    .filter(e -> e.getValue() >= minShared)
+                    .map(Map.Entry::getKey)
+                    .filter(term -> Math.abs(term.length() - word.length()) <= maxEdits)
+                    .filter(term -> editDistance(word, term, maxEdits) <= maxEdits)
+                    .sorted(Comparator.comparingInt((String term) -> editDistance(word, term, maxEdits))
+                            .thenComparing(Comparator.naturalOrder()))
+                    .limit(MAX_FUZZY_EXPANSIONS)
+                    .forEach(term -> expansions.add(expansion(term, FUZZY_WEIGHT, docCount)));
+        }
+        return expansions;
+    }
+
+    /**
+     * Expansion with its weight folded into the term's IDF, computed once per query
+     */
+    private Expansion expansion(String term, double weight, int docCount) {
+        int df = postings.get(term).size();
+        return new Expansion(term, weight * Math.log(1 + (docCount - df + 0.5) / (df + 0.5)));
+    }
+
+    private BitSet union(List<Expansion> expansions) {
+        BitSet bits = new BitSet();
+        for (Expansion expansion : expansions) {
+            postings.get(expansion.getTerm()).addTo(bits);
+        }
+        return bits;
+    }
+
+    /**
+     * BM25 over the best expansion of each query word
+     */
+    private double score(IndexedDoc doc, List<List<Expansion>> expanded, double avgLength) {
+        double norm = K1 * (1 - B + B * doc.length / avgLength);
+        double score = 0;
+        for (List<Expansion> expansions : expanded) {
+            double best = 0;
+            for (Expansion expansion : expansions) {
+                int[] positions = doc.positions.get(expansion.getTerm());
+                if (positions == null) {
+                    continue;
+                }
+                double tf = positions.length;
+                double value = expansion.getWeightedIdf() * tf * (K1 + 1) / (tf + norm);
+                if (doc.titleTerms.contains(expansion.getTerm())) {
+                    value *= TITLE_BOOST;
+                }
+                best = Math.max(best, value);
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    // ===== Documents and text =====
+
+    private static IndexedDoc contentDoc(String key, String pageName, String value, String description) {
+        return new IndexedDoc(TYPE_CONTENT, key, pageName, null, key, snippet(value),
+                List.of(key), Arrays.asList(value, description));
+    }
+
+    private static IndexedDoc imageDoc(String key, String pageName, String imageName,
+                                       String altText, String description, String status) {
+        return new IndexedDoc(TYPE_IMAGE, key, pageName, status, imageName, snippet(altText != null ? altText : description),
+                Arrays.asList(key, imageName), Arrays.asList(altText, description));
+    }
+
+    private static String snippet(String text) {
+        if (text == null) {
+            return null;
+        }
+        String flat = text.replaceAll("\\s+", " ").trim();
+        return flat.length() <= SNIPPET_LENGTH ? flat : flat.substring(0, SNIPPET_LENGTH) + "…";
+    }
+
+    /**
+     * Split a query into plain words and quoted phrases
+     */
+    private static void parse(String query, List<String> words, List<List<String>> phrases) {
+        if (query == null) {
+            return;
+        }
+        Matcher matcher = PHRASE.matcher(query);
+        StringBuilder rest = new StringBuilder();
+        while (matcher.find()) {
+            List<String> phrase = tokenize(matcher.group(1));
+            if (phrase.size() == 1) {
+                words.addAll(phrase);
+            } else if (!phrase.isEmpty()) {
+                phrases.add(phrase);
+            }
+            matcher.appendReplacement(rest, " ");
+        }
+        matcher.appendTail(rest);
+        words.addAll(tokenize(rest.toString()));
+    }
+
+    /**
+     * Lowercased, accent-folded letter/digit runs
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Optimal string alignment distance, giving up once it exceeds max
+     */
+    private static int editDistance(String a, String b, int max) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, d[i][j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    /**
+     * Per-document state: term positions (title fields first, FIELD_GAP apart so phrases never span fields)
+     */
+    private static final class IndexedDoc {
+        private final String type;
+        private final String key;
+        private final String pageName;
+        private final String status;
+        private final String title;
+        private final String snippet;
+        private final Map<String, int[]> positions = new HashMap<>();
+        private final Set<String> titleTerms = new HashSet<>();
+        private final int length;
+
+        private IndexedDoc(String type, String key, String pageName, String status, String title, String snippet,
+                           List<String> titleFields, List<String> bodyFields) {
+            this.type = type;
+            this.key = key;
+            this.pageName = pageName;
+            this.status = status;
+            this.title = title;
+            this.snippet = snippet;
+
+            Map<String, List<Integer>> collected = new HashMap<>();
+            int position = 0;
+            int tokens = 0;
+            for (int field = 0; field < titleFields.size() + bodyFields.size(); field++) {
+                boolean isTitle = field < titleFields.size();
+                String text = isTitle ? titleFields.get(field) : bodyFields.get(field - titleFields.size());
+                for (String token : tokenize(text)) {
+                    collected.computeIfAbsent(token, t -> new ArrayList<>()).add(position++);
+                    if (isTitle) {
+                        titleTerms.add(token);
+                    }
+                    tokens++;
+                }
+                position += FIELD_GAP;
+            }
+            collected.forEach((term, list) -> positions.put(term, list.stream().mapToInt(Integer::intValue).toArray()));
+            this.length = Math.max(1, tokens);
+        }
+
+        private boolean containsPhrase(List<String> phrase) {
+            int[] first = positions.get(phrase.get(0));
+            if (first == null) {
+                return false;
+            }
+            for (int start : first) {
+                boolean matched = true;
+                for (int i = 1; i < phrase.size() && matched; i++) {
+                    int[] next = positions.get(phrase.get(i));
+                    matched = next != null && Arrays.binarySearch(next, start + i) >= 0;
+                }
+                if (matched) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Sorted, growable array of document IDs
+     */
+    private static final class PostingList {
+        private int[] ids = new int[2];
+        private int size;
+
+        private void add(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        private void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+                size--;
+            }
+        }
+
+        private void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(ids[i]);
+            }
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class Expansion {
+        private final String term;
+        private final double weightedIdf;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class ScoredDoc {
+        private final int id;
+        private final double score;
+    }
+
+    /**
+     * One ranked match
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SearchHit {
+        private final String type;
+        private final String key;
+        private final String pageName;
+        private final String status;
+        private final String title;
+        private final String snippet;
+        private final double score;
+    }
+
+    /**
+     * One page of ranked matches
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SearchResult {
+        private final int total;
+        private final int page;
+        private final int size;
+        private final List<SearchHit> hits;
+        private final long tookMicros;
+    }
+}
@@ -0,0 +1,246 @@
+package com.charity.service;
+
+import com.charity.entity.PageContent;
+import com.charity.entity.PageContentRevision;
+import com.charity.exception.CharityException;
+import com.charity.repository.PageContentRepository;
+import com.charity.repository.PageContentRevisionRepository;
+import com.charity.util.TextDelta;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only revision log for page content.
+ *
+ * Every change to a content key appends a revision. Every Nth revision
+ * (and the first one after a delete) stores the whole value as a keyframe;
+ * the others store a prefix/suffix delta against the previous revision,
+ * so rebuilding any revision reads at most N rows.
+ */
+@Service
+@Transactional
+@Slf4j
+public class ContentRevisionService {
+
+    @Autowired
+    private PageContentRevisionRepository revisionRepository;
+
+    @Autowired
+    private PageContentRepository contentRepository;
+
+    @Value("${content.revisions.keyframe-interval:20}")
+    private int keyframeInterval;
+
+    /**
+     * Write a baseline keyframe for content that predates the revision log
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordBaselines() {
+        Set<String> withHistory = new HashSet<>(revisionRepository.findAllContentKeys());
+        List<PageContentRevision> baselines = new ArrayList<>();
+        for (PageContent content : contentRepository.findAll()) {
+            if (withHistory.contains(content.getContentKey()) || content.getContentValue() == null) {
+                continue;
+            }
+            PageContentRevision baseline = newRevision(content.getContentKey(), 1, content.getPageName(),
+                    content.getDescription(), "baseline");
+            fillKeyframe(baseline, content.getContentValue());
+            baseline.setCreatedAt(content.getUpdatedAt() != null ? content.getUpdatedAt() : LocalDateTime.now());
+            baselines.add(baseline);
+        }
+        revisionRepository.saveAll(baselines);
+        if (!baselines.isEmpty()) {
+            log.info("Recorded baseline revisions for {} content keys", baselines.size());
+        }
+    }
+
+    /**
+     * Append one revision per change (one query for the current heads, one batch of inserts)
+     */
+    public void record(Collection<Change> changes, String editedBy) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Map<String, int[]> heads = new HashMap<>();
+        List<String> keys = changes.stream().map(Change::getContentKey).toList();
+        for (Object[] row : revisionRepository.findHeads(keys)) {
+            heads.put((String) row[0], new int[]{((Number) row[1]).intValue(), ((Number) row[2]).intValue()});
+        }
+
+        List<PageContentRevision> revisions = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            int[] head = heads.getOrDefault(change.getContentKey(), new int[]{0, 0});
+            int number = head[0] + 1;
+            PageContentRevision revision = newRevision(change.getContentKey(), number, change.getPageName(),
+                    change.getDescription(), editedBy);
+
+            if (change.getNewValue() == null) {
+                revision.setOperation(PageContentRevision.OP_DELETE);
+            } else if (change.getPreviousValue() == null || head[0] == 0 || number - head[1] >= keyframeInterval) {
+                fillKeyframe(revision, change.getNewValue());
+            } else {
+                byte[] delta = TextDelta.diff(change.getPreviousValue(), change.getNewValue());
+                byte[] keyframe = TextDelta.keyframe(change.getNewValue());
+                if (delta.length < keyframe.length) {
+                    revision.setPayload(delta);
+                    revision.setChecksum(checksum(change.getNewValue()));
+                    revision.setValueLength(change.getNewValue().length());
+                } else {
+                    fillKeyframe(revision, change.getNewValue());
+                }
+            }
+            revisions.add(revision);
+        }
+        revisionRepository.saveAll(revisions);
+    }
+
+    /**
+     * Rebuild the value of a key at a revision (null if the key was deleted at that revision)
+     */
+    public String getValueAt(String contentKey, int revision) {
+        return reconstruct(contentKey, revision).getValue();
+    }
+
+    /**
+     * Revision metadata for a key, newest first
+     */
+    public List<PageContentRevision> getHistory(String contentKey) {
+        return revisionRepository.findByContentKeyOrderByRevisionDesc(contentKey);
+    }
+
+    /**
+     * Most recent revisions on a page, newest first
+     */
+    public List<PageContentRevision> getPageHistory(String pageName) {
+        return revisionRepository.findTop100ByPageNameOrderByCreatedAtDesc(pageName);
+    }
+
+    /**
+     * Find one revision
+     */
+    public PageContentRevision getRevision(String contentKey, int revision) {
+        return revisionRepository.findByContentKeyAndRevision(contentKey, revision)
+                .orElseThrow(() -> new CharityException("Revision not found: " + contentKey + "@" + revision));
+    }
+
+    /**
+     * The page as it was at an instant: key -> value (two queries: the target revisions, then every chain)
+     */
+    public Map<String, String> getPageAt(String pageName, LocalDateTime at) {
+        Map<String, Integer> targets = new HashMap<>();
+        for (Object[] row : revisionRepository.findRevisionsAt(pageName, at)) {
+            targets.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        if (targets.isEmpty()) {
+            return new TreeMap<>();
+        }
+
+        Map<String, List<PageContentRevision>> chains = new HashMap<>();
+        for (PageContentRevision step : revisionRepository.findChainsAt(targets.keySet(), at)) {
+            if (step.getRevision() <= targets.get(step.getContentKey())) {
+                chains.computeIfAbsent(step.getContentKey(), key -> new ArrayList<>()).add(step);
+            }
+        }
+
+        Map<String, String> page = new TreeMap<>();
+        targets.forEach((contentKey, revision) -> {
+            Reconstructed state = replay(contentKey, revision, chains.getOrDefault(contentKey, List.of()));
+            if (state.getValue() != null && pageName.equals(state.getRevision().getPageName())) {
+                page.put(contentKey, state.getValue());
+            }
+        });
+        return page;
+    }
+
+    private Reconstructed reconstruct(String contentKey, int revision) {
+        int from = revisionRepository.findKeyframeAtOrBefore(contentKey, revision).orElse(1);
+        return replay(contentKey, revision,
+                revisionRepository.findByContentKeyAndRevisionBetweenOrderByRevisionAsc(contentKey, from, revision));
+    }
+
+    /**
+     * Apply a chain (keyframe .. target, in revision order) to rebuild the target's value
+     */
+    private Reconstructed replay(String contentKey, int revision, List<PageContentRevision> chain) {
+        if (chain.isEmpty() || chain.get(chain.size() - 1).getRevision() != revision) {
+            throw new CharityException("Revision not found: " + contentKey + "@" + revision);
+        }
+
+        String value = null;
+        for (PageContentRevision step : chain) {
+            if (PageContentRevision.OP_DELETE.equals(step.getOperation())) {
+                value = null;
+            } else if (step.isKeyframe()) {
+                value = TextDelta.fromKeyframe(step.getPayload());
+            } else if (value != null) {
+                value = TextDelta.apply(value, step.getPayload());
+            } else {
+                throw new CharityException("Revision chain is broken at " + contentKey + "@" + step.getRevision());
+            }
+        }
+
+        PageContentRevision target = chain.get(chain.size() - 1);
+        if (value != null && target.getChecksum() != null && checksum(value) != target.getChecksum()) {
+            throw new CharityException("Checksum mismatch rebuilding " + contentKey + "@" + revision);
+        }
+        return new Reconstructed(target, value);
+    }
+
+    private static PageContentRevision newRevision(String key, int number, String pageName,
+                                                   String description, String editedBy) {
+        PageContentRevision revision = new PageContentRevision();
+        revision.setContentKey(key);
+        revision.setRevision(number);
+        revision.setPageName(pageName);
+        revision.setOperation(PageContentRevision.OP_UPSERT);
+        revision.setDescription(description);
+        revision.setEditedBy(editedBy);
+        return revision;
+    }
+
+    private static void fillKeyframe(PageContentRevision revision, String value) {
+        revision.setKeyframe(true);
+        revision.setPayload(TextDelta.keyframe(value));
+        revision.setChecksum(checksum(value));
+        revision.setValueLength(value.length());
+    }
+
+    private static long checksum(String value) {
+        CRC32 crc = new CRC32();
+        crc.update(value.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * One content change to record; newValue is null for a delete
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Change {
+        private final String contentKey;
+        private final String pageName;
+        private final String previousValue;
+        private final String newValue;
+        private final String description;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Reconstructed {
+        private final PageContentRevision revision;
+        private final String value;
+    }
+}
@@ -50,7 +50,7 @@ public class EventService {
      * Get event by ID
      */
     public Event getEventById(Long id) {
-        return eventRepository.findById(id)
+        return eventRepository.findWithDetailsById(id)
                 .orElseThrow(() -> new EventNotFoundException("Event not found with ID: " + id));
     }
 
@@ -58,7 +58,7 @@ public class EventService {
      * Get all events
      */
     public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+        return eventRepository.findAllForListing();
     }
 
     /**
@@ -0,0 +1,143 @@
+package com.charity.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts image downloads in memory instead of writing the row on every GET.
+ *
+ * Each download only increments a per-key LongAdder. A scheduled flush adds
+ * the accumulated counts with one UPDATE ... CASE statement per chunk and
+ * subtracts exactly what it wrote, so increments that race with a flush are
+ * kept for the next one. The map is drained on shutdown. Entries stay in
+ * the map once created (one per image key served), so no increment can land
+ * on an adder that was already removed.
+ */
+@Component
+@Slf4j
+public class ImageDownloadCounter {
+
+    private static final int MAX_KEYS_PER_STATEMENT = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    public ImageDownloadCounter(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record one download (no database access)
+     */
+    public void increment(String imageKey) {
+        pending.computeIfAbsent(imageKey, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Downloads of an image not yet written to the database
+     */
+    public long getPending(String imageKey) {
+        LongAdder adder = pending.get(imageKey);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Write all pending counts to the database
+     */
+    @Scheduled(fixedDelayString = "${images.download-counts.flush-interval-ms:30000}")
+    public void flush() {
+        List<Map.Entry<String, Long>> batch = new ArrayList<>();
+        pending.forEach((key, adder) -> {
+            long count = adder.sum();
+            if (count > 0) {
+                batch.add(Map.entry(key, count));
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        int written = 0;
+        for (int from = 0; from < batch.size(); from += MAX_KEYS_PER_STATEMENT) {
+            List<Map.Entry<String, Long>> chunk = batch.subList(from, Math.min(from + MAX_KEYS_PER_STATEMENT, batch.size()));
+            try {
+                written += transactionTemplate.execute(status -> updateChunk(chunk));
+                // Keep whatever arrived while we were writing
+                chunk.forEach(entry -> {
+                    pending.get(entry.getKey()).add(-entry.getValue());
+                    flushed.add(entry.getValue());
+                });
+            } catch (Exception e) {
+                failedFlushes.increment();
+                log.warn("Failed to flush image download counts ({} keys kept for retry): {}",
+                        chunk.size(), e.getMessage());
+            }
+        }
+        log.debug("Flushed download counts for {} images", written);
+    }
+
+    /**
+     * Flush whatever is left before the application stops
+     */
+    @PreDestroy
+    public void drain() {
+        flush();
+        long left = pending.values().stream().mapToLong(LongAdder::sum).sum();
+        if (left > 0) {
+            log.warn("{} image downloads could not be flushed on shutdown", left);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedKeys", pending.size());
+        stats.put("pendingDownloads", pending.values().stream().mapToLong(LongAdder::sum).sum());
+        stats.put("flushedDownloads", flushed.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        return stats;
+    }
+
+    /**
+     * UPDATE images SET download_count = COALESCE(download_count, 0) + CASE image_key WHEN ? THEN ? ... END
+     * WHERE image_key IN (...)
+     */
+    private int updateChunk(List<Map.Entry<String, Long>> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE images SET download_count = COALESCE(download_count, 0) + CASE image_key");
+        StringBuilder keys = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(" WHEN ?").append(2 * i + 1).append(" THEN ?").append(2 * i + 2);
+            keys.append(i == 0 ? "" : ", ").append('?').append(2 * chunk.size() + i + 1);
+        }
+        sql.append(" ELSE 0 END WHERE image_key IN (").append(keys).append(')');
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < chunk.size(); i++) {
+            Map.Entry<String, Long> entry = chunk.get(i);
+            query.setParameter(2 * i + 1, entry.getKey());
+            query.setParameter(2 * i + 2, entry.getValue());
+            query.setParameter(2 * chunk.size() + i + 1, entry.getKey());
+        }
+        return query.executeUpdate();
+    }
+}
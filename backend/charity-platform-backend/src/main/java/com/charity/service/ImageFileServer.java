@@ -0,0 +1,423 @@
+package com.charity.service;
+
+import com.charity.util.ContentNegotiation;
+import com.charity.util.ImageVariants;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Serves files from upload.dir (spring.web.resources.add-mappings is off).
+ *
+ * - Bodies go out through Tomcat's sendfile when the connector supports it,
+ *   otherwise through FileChannel.transferTo, so file bytes are not copied
+ *   through the heap.
+ * - Single byte ranges (206/416, If-Range), ETag / If-None-Match and
+ *   Last-Modified / If-Modified-Since (304).
+ * - The ETag is the SHA-256 of the content: taken from the name for
+ *   content-addressed originals, otherwise hashed once and cached by size
+ *   and modification time. An .avif or .webp file is always hashed, since
+ *   a generated sibling shares its original's stem but not its bytes.
+ * - ?w= picks the smallest stored variant at least that wide; an .avif or
+ *   .webp sibling is preferred when the Accept header allows it.
+ * - Only a content-addressed original served exactly as named is sent as
+ *   immutable. Variants are regenerated by the backfill, and a negotiated
+ *   response may change once a better variant or format exists, so those
+ *   get the short negotiated max-age.
+ */
+@Component
+@Slf4j
+public class ImageFileServer {
+
+    // Request attributes of Tomcat's sendfile support (org.apache.tomcat.util.net / Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64})(_w\\d+)?");
+    private static final Pattern VARIANT_NAME = Pattern.compile("_w\\d+\\.[^.]+$");
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final String[][] ALTERNATE_FORMATS = {{"image/avif", "avif"}, {"image/webp", "webp"}};
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "jpeg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif",
+            "webp", "image/webp",
+            "avif", "image/avif");
+
+    private final ImageStorageService storageService;
+    private final List<Integer> variantWidths;
+    private final long sendfileMinBytes;
+    private final long maxAgeSeconds;
+    private final long negotiatedMaxAgeSeconds;
+    private final int etagCacheSize;
+
+    private final Map<Path, FileTag> etags = new ConcurrentHashMap<>();
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder partial = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder sendfile = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder hashed = new LongAdder();
+
+    public ImageFileServer(ImageStorageService storageService,
+                           ImageVariantService variantService,
+                           @Value("${file-serving.sendfile-min-bytes:49152}") long sendfileMinBytes,
+                           @Value("${file-serving.max-age-seconds:86400}") long maxAgeSeconds,
+                           @Value("${file-serving.negotiated-max-age-seconds:300}") long negotiatedMaxAgeSeconds,
+                           @Value("${file-serving.etag-cache-size:10000}") int etagCacheSize) {
+        this.storageService = storageService;
+        this.variantWidths = variantService.getWidths().stream().sorted().collect(Collectors.toList());
+        this.sendfileMinBytes = sendfileMinBytes;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.negotiatedMaxAgeSeconds = negotiatedMaxAgeSeconds;
+        this.etagCacheSize = etagCacheSize;
+    }
+
+    /**
+     * Write a stored file (or its best variant) to the response
+     */
+    public void serve(String relativePath, Integer width,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path path = locate(relativePath);
+        if (path == null) {
+            notFound.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // Negotiate size, then format
+        Path named = path;
+        String fileName = path.getFileName().toString();
+        if (width != null && width > 0 && !VARIANT_NAME.matcher(fileName).find()) {
+            path = pickWidth(path, width);
+        }
+        boolean varies = false;
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        for (String[] format : ALTERNATE_FORMATS) {
+            Path alternate = withExtension(path, format[1]);
+            if (!alternate.equals(path) && Files.isRegularFile(alternate)) {
+                varies = true;
+                if (ContentNegotiation.accepts(accept, format[0])) {
+                    path = alternate;
+                    break;
+                }
+            }
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            notFound.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        String etag = etag(path, length, attributes.lastModifiedTime().toMillis());
+        boolean variant = VARIANT_NAME.matcher(path.getFileName().toString()).find();
+        boolean negotiated = width != null || varies || !path.equals(named);
+        String cacheControl;
+        if (variant || negotiated) {
+            cacheControl = "public, max-age=" + negotiatedMaxAgeSeconds;
+        } else if (CONTENT_ADDRESSED.matcher(stem(fileName)).matches()) {
+            cacheControl = "public, max-age=31536000, immutable";
+        } else {
+            cacheControl = "public, max-age=" + maxAgeSeconds;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (varies) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+
+        if (isNotModified(request, etag, lastModified)) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length; // exclusive
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && "GET".equals(request.getMethod()) && ifRangeHolds(request, etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+                partial.increment();
+            }
+        }
+
+        response.setContentType(CONTENT_TYPES.getOrDefault(extension(path.getFileName().toString()), "application/octet-stream"));
+        response.setContentLengthLong(end - start);
+        served.increment();
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        bytesSent.add(end - start);
+        if (end - start >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat streams the file with sendfile after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            sendfile.increment();
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long sent = file.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("served", served.sum());
+        stats.put("partial", partial.sum());
+        stats.put("notModified", notModified.sum());
+        stats.put("notFound", notFound.sum());
+        stats.put("sendfile", sendfile.sum());
+        stats.put("bytesSent", bytesSent.sum());
+        stats.put("etagsHashed", hashed.sum());
+        stats.put("etagCacheSize", etags.size());
+        return stats;
+    }
+
+    /**
+     * Resolve a request path to a stored file; null for missing, hidden or temp files
+     */
+    private Path locate(String relativePath) {
+        if (relativePath == null) {
+            return null;
+        }
+        String clean = relativePath.startsWith("/") ? relativePath.substring(1) : relativePath;
+        if (clean.isEmpty()) {
+            return null;
+        }
+        for (String segment : clean.split("/")) {
+            if (segment.isEmpty() || segment.startsWith(".")) {
+                return null;
+            }
+        }
+        try {
+            Path path = storageService.resolve(clean);
+            return Files.isRegularFile(path) ? path : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Smallest variant at least as wide as requested, else the original
+     */
+    private Path pickWidth(Path original, int width) {
+        String fileName = original.getFileName().toString();
+        for (int candidate : variantWidths) {
+            if (candidate >= width) {
+                Path variant = original.resolveSibling(ImageVariants.variantName(fileName, candidate));
+                if (Files.isRegularFile(variant)) {
+                    return variant;
+                }
+            }
+        }
+        return original;
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesAny(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    /**
+     * A Range applies only if If-Range (when sent) still names this representation
+     */
+    private boolean ifRangeHolds(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.trim().equals(etag);
+        }
+        return dateHeader(request, HttpHeaders.IF_RANGE) == lastModified;
+    }
+
+    private static boolean matchesAny(String header, String etag) {
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * [start, endExclusive] for one satisfiable range, an empty array to ignore
+     * the header (multiple ranges, bad syntax), null when unsatisfiable
+     */
+    private static long[] parseRange(String header, long length) {
+        Matcher matcher = RANGE.matcher(header.trim());
+        if (!matcher.matches()) {
+            return new long[0];
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        try {
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return new long[0];
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix == 0 || length == 0) {
+                    return null;
+                }
+                return new long[]{Math.max(0, length - suffix), length};
+            }
+            long start = Long.parseLong(first);
+            if (start >= length) {
+                return null;
+            }
+            long end = last.isEmpty() ? length : Math.min(Long.parseLong(last) + 1, length);
+            if (end <= start) {
+                return new long[0];
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private String etag(Path path, long size, long modified) throws IOException {
+        String fileName = path.getFileName().toString();
+        Matcher addressed = CONTENT_ADDRESSED.matcher(stem(fileName));
+        if (addressed.matches() && addressed.group(2) == null && !isAlternateFormat(fileName)) {
+            return "\"" + addressed.group(1) + "\"";
+        }
+
+        FileTag cached = etags.get(path);
+        if (cached != null && cached.size == size && cached.modified == modified) {
+            return cached.etag;
+        }
+        String etag = "\"" + sha256(path) + "\"";
+        if (etags.size() >= etagCacheSize) {
+            etags.clear();
+        }
+        etags.put(path, new FileTag(size, modified, etag));
+        hashed.increment();
+        return etag;
+    }
+
+    private static String sha256(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean isAlternateFormat(String fileName) {
+        String extension = extension(fileName);
+        for (String[] format : ALTERNATE_FORMATS) {
+            if (format[1].equals(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Path withExtension(Path path, String extension) {
+        String fileName = path.getFileName().toString();
+        return path.resolveSibling(stem(fileName) + "." + extension);
+    }
+
+    private static String stem(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+
+    private static String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase();
+    }
+
+    @RequiredArgsConstructor
+    private static class FileTag {
+        private final long size;
+        private final long modified;
+        private final String etag;
+    }
+}
@@ -7,12 +7,18 @@ import com.charity.entity.AdminUser;
 import com.charity.exception.UnauthorizedException;
 import com.charity.repository.ImageRepository;
 import com.charity.repository.AdminUserRepository;
+import com.charity.util.ImageVariants;
+import com.charity.util.TransactionHooks;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +35,18 @@ public class ImageManagementService {
     @Autowired
     private ImageStorageService imageStorageService;
 
+    @Autowired
+    private PageBundleCache bundleCache;
+
+    @Autowired
+    private CmsSearchIndex searchIndex;
+
+    @Autowired
+    private ImageVariantService variantService;
+
+    @Autowired
+    private ImageDownloadCounter downloadCounter;
+
     /**
      * Upload and save image
      */
@@ -47,11 +65,19 @@ public class ImageManagementService {
         // Check if image key already exists (update or create)
         Image image = imageRepository.findByImageKey(request.getImageKey())
                 .orElse(new Image());
+        String previousPage = image.getPageName();
+        String previousFileName = image.getFileName();
+        String previousVariants = image.getVariantWidths();
+
+        // Variants belong to the stored file: reuse them if an image with the same content has them
+        Image processed = imageRepository.findFirstByFileNameAndVariantWidthsIsNotNull(metadata.getFileName())
+                .orElse(null);
 
         // Set image details
         image.setImageKey(request.getImageKey());
         image.setImageName(metadata.getOriginalName());
         image.setFileName(metadata.getFileName());
+        image.setContentHash(metadata.getContentHash());
         image.setFileUrl(metadata.getFileUrl());
         image.setFileSize(metadata.getFileSize());
         image.setMimeType(metadata.getMimeType());
@@ -62,45 +88,52 @@ public class ImageManagementService {
         image.setUploadedBy(admin);
         image.setStatus("active");
 
-        // Try to extract image dimensions (optional)
-        // In production, use a library like ImageIO or thumbnailator
+        // Otherwise dimensions and resized variants are filled in by ImageVariantService
+        image.setWidth(processed != null ? processed.getWidth() : null);
+        image.setHeight(processed != null ? processed.getHeight() : null);
+        image.setVariantWidths(processed != null ? processed.getVariantWidths() : null);
 
         Image saved = imageRepository.save(image);
         log.info("Image saved to database: '{}' by {}", request.getImageKey(), adminUsername);
+        if (processed == null) {
+            variantService.enqueue(saved);
+        }
+        if (previousFileName != null && !previousFileName.equals(saved.getFileName())) {
+            releaseFileAfterCommit(previousFileName, previousVariants);
+        }
+        bundleCache.refreshAfterCommit(Arrays.asList(previousPage, saved.getPageName()));
+        searchIndex.indexImage(saved);
 
         return ImageResponse.fromEntity(saved);
     }
 
     /**
-     * Get image by key
+     * Get image by key (read-only: the download is counted in memory by ImageDownloadCounter)
      */
+    @Transactional(readOnly = true)
     public ImageResponse getImage(String imageKey) {
         Image image = imageRepository.findByImageKey(imageKey)
                 .orElseThrow(() -> new RuntimeException("Image not found: " + imageKey));
 
-        // Increment download count
-        image.setDownloadCount((image.getDownloadCount() != null ? image.getDownloadCount() : 0) + 1);
-        imageRepository.save(image);
+        downloadCounter.increment(imageKey);
 
-        return ImageResponse.fromEntity(image);
+        return withPendingDownloads(ImageResponse.fromEntity(image));
     }
 
     /**
      * Get all active images for a page
      */
+    @Transactional(readOnly = true)
     public List<ImageResponse> getPageImages(String pageName) {
-        return imageRepository.findByPageNameAndStatus(pageName, "active").stream()
-                .map(ImageResponse::fromEntity)
-                .collect(Collectors.toList());
+        return withPendingDownloads(imageRepository.findResponsesByPageNameAndStatus(pageName, "active"));
     }
 
     /**
      * Get all images for a page (including inactive)
      */
+    @Transactional(readOnly = true)
     public List<ImageResponse> getAllPageImages(String pageName) {
-        return imageRepository.findByPageName(pageName).stream()
-                .map(ImageResponse::fromEntity)
-                .collect(Collectors.toList());
+        return withPendingDownloads(imageRepository.findResponsesByPageName(pageName));
     }
 
     /**
@@ -110,11 +143,11 @@ public class ImageManagementService {
         Image image = imageRepository.findByImageKey(imageKey)
                 .orElseThrow(() -> new RuntimeException("Image not found: " + imageKey));
 
-        // Delete file from storage
-        imageStorageService.deleteImage(image.getFileName());
-
-        // Delete from database
+        // Delete from database; the file goes once no other image shares it
         imageRepository.delete(image);
+        releaseFileAfterCommit(image.getFileName(), image.getVariantWidths());
+        searchIndex.removeImage(imageKey);
+        bundleCache.refreshAfterCommit(List.of(image.getPageName()));
         log.info("Image deleted: '{}' by {}", imageKey, adminUsername);
     }
 
@@ -127,6 +160,8 @@ public class ImageManagementService {
 
         image.setStatus("inactive");
         Image updated = imageRepository.save(image);
+        bundleCache.refreshAfterCommit(List.of(image.getPageName()));
+        searchIndex.indexImage(updated);
 
         return ImageResponse.fromEntity(updated);
     }
@@ -146,16 +181,17 @@ public class ImageManagementService {
         if (description != null) image.setDescription(description);
 
         Image updated = imageRepository.save(image);
+        bundleCache.refreshAfterCommit(List.of(image.getPageName()));
+        searchIndex.indexImage(updated);
         return ImageResponse.fromEntity(updated);
     }
 
     /**
      * Get recent uploads
      */
+    @Transactional(readOnly = true)
     public List<ImageResponse> getRecentUploads() {
-        return imageRepository.findRecentUploads().stream()
-                .map(ImageResponse::fromEntity)
-                .collect(Collectors.toList());
+        return withPendingDownloads(imageRepository.findRecentUploadResponses());
     }
 
     /**
@@ -166,11 +202,17 @@ public class ImageManagementService {
     }
 
     /**
-     * Search images
+     * Search images (ranked, via the search index; top 50)
      */
     public List<ImageResponse> searchImages(String keyword) {
-        return imageRepository.searchImages(keyword).stream()
-                .map(ImageResponse::fromEntity)
+        List<String> keys = searchIndex.search(keyword, CmsSearchIndex.TYPE_IMAGE, null, 0, 50).getHits().stream()
+                .map(CmsSearchIndex.SearchHit::getKey)
+                .collect(Collectors.toList());
+        Map<String, Image> found = imageRepository.findByImageKeyIn(keys).stream()
+                .collect(Collectors.toMap(Image::getImageKey, i -> i));
+        return keys.stream()
+                .filter(found::containsKey)
+                .map(key -> ImageResponse.fromEntity(found.get(key)))
                 .collect(Collectors.toList());
     }
 
@@ -180,4 +222,37 @@ public class ImageManagementService {
     public long getPageImageCount(String pageName) {
         return imageRepository.countByPageName(pageName);
     }
+
+    /**
+     * Add downloads counted since the last flush to the stored count
+     * @private
+     */
+    private ImageResponse withPendingDownloads(ImageResponse image) {
+        long pendingDownloads = downloadCounter.getPending(image.getImageKey());
+        if (pendingDownloads > 0) {
+            int stored = image.getDownloadCount() != null ? image.getDownloadCount() : 0;
+            image.setDownloadCount((int) Math.min(Integer.MAX_VALUE, stored + pendingDownloads));
+        }
+        return image;
+    }
+
+    private List<ImageResponse> withPendingDownloads(List<ImageResponse> images) {
+        images.forEach(this::withPendingDownloads);
+        return images;
+    }
+
+    /**
+     * Delete a stored file and its variants after commit if no image references it any more
+     * @private
+     */
+    private void releaseFileAfterCommit(String fileName, String variantWidths) {
+        TransactionHooks.afterCommit(() -> {
+            if (imageRepository.countByFileName(fileName) > 0) {
+                return;
+            }
+            Set<Integer> widths = new TreeSet<>(variantService.getWidths());
+            widths.addAll(ImageVariants.parseWidths(variantWidths));
+            imageStorageService.deleteUnreferenced(fileName, widths);
+        });
+    }
 }
@@ -1,29 +1,52 @@
 package com.charity.service;
 
 import com.charity.exception.CharityException;
+import com.charity.util.ImageVariants;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.Instant;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @Slf4j
 public class ImageStorageService {
 
+    // Released and orphaned files wait here; UploadReconciler restores or purges them
+    public static final String QUARANTINE_DIR = ".quarantine";
+
     @Value("${upload.dir:uploads/images}")
     private String uploadDir;
 
     @Value("${upload.url-base:http://localhost:8080/uploads/images}")
     private String uploadUrlBase;
 
+    // Unreferenced files touched more recently than this are left to the orphan reconciler
+    @Value("${upload.delete-grace-ms:600000}")
+    private long deleteGraceMs;
+
     private static final List<String> ALLOWED_EXTENSIONS = new ArrayList<>() {{
         add("jpg");
         add("jpeg");
@@ -34,6 +57,15 @@ public class ImageStorageService {
 
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
 
+    // Per-thread direct buffer: an upload never holds more than this on or off heap
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> COPY_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(COPY_BUFFER_SIZE));
+
+    // RIFF....WEBP is the longest signature checked
+    private static final int SIGNATURE_LENGTH = 12;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
     private static final List<String> ALLOWED_MIME_TYPES = new ArrayList<>() {{
         add("image/jpeg");
         add("image/png");
@@ -42,7 +74,10 @@ public class ImageStorageService {
     }};
 
     /**
-     * Upload image file
+     * Upload image file.
+     * The part is streamed through a fixed buffer into a temp file and renamed
+     * into place, so heap use per upload does not grow with the file size.
+     * Files are stored under their SHA-256, so identical uploads share one file.
      * @param file - MultipartFile from frontend
      * @param imageKey - Unique key for this image
      * @return Metadata about uploaded file
@@ -54,7 +89,7 @@ public class ImageStorageService {
             throw new CharityException("File is empty");
         }
 
-        // Check file size
+        // Check declared file size (the streamed size is enforced while copying)
         if (file.getSize() > MAX_FILE_SIZE) {
             throw new CharityException("File size exceeds maximum of 5MB");
         }
@@ -74,33 +109,166 @@ public class ImageStorageService {
             throw new CharityException("Invalid file MIME type: " + mimeType);
         }
 
+        Path uploadPath = Paths.get(uploadDir);
+        Path temp = null;
         try {
-            // Generate unique filename
-            String fileName = generateFileName(imageKey, extension);
-
-            // Create upload directory if not exists
-            Path uploadPath = Paths.get(uploadDir);
             Files.createDirectories(uploadPath);
 
-            // Save file
-            Path filePath = uploadPath.resolve(fileName);
-            Files.write(filePath, file.getBytes());
+            // Stream into a temp file while hashing, then rename it to its content address
+            temp = Files.createTempFile(uploadPath, ".upload-", ".part");
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = file.getInputStream();
+                 ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                size = copyValidated(source, target, extension, digest);
+            }
+
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            String fileName = contentAddressedName(contentHash, extension);
+            Path filePath = resolve(fileName);
+            boolean deduplicated = Files.isRegularFile(filePath);
+            if (deduplicated) {
+                // Same bytes already stored (possibly under another key); renew the
+                // timestamp so a concurrent release skips it (see deleteUnreferenced)
+                try {
+                    Files.setLastModifiedTime(filePath, FileTime.fromMillis(System.currentTimeMillis()));
+                } catch (NoSuchFileException e) {
+                    // Released between the check and the touch: store our copy after all
+                    deduplicated = false;
+                }
+            }
+            if (!deduplicated) {
+                Files.createDirectories(filePath.getParent());
+                try {
+                    Files.move(temp, filePath, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
 
-            log.info("Image uploaded: {} -> {}", imageKey, fileName);
+            log.info("Image uploaded: {} -> {} ({} bytes{})", imageKey, fileName, size,
+                    deduplicated ? ", deduplicated" : "");
 
             // Return metadata
             return ImageMetadata.builder()
                     .fileName(fileName)
                     .originalName(originalName)
-                    .fileSize(file.getSize())
-                    .mimeType(mimeType)
+                    .fileSize(size)
+                    .mimeType(mimeTypeFor(extension))
                     .extension(extension)
                     .fileUrl(uploadUrlBase + "/" + fileName)
+                    .contentHash(contentHash)
+                    .deduplicated(deduplicated)
                     .build();
 
         } catch (IOException e) {
             log.error("Error uploading file: {}", e.getMessage());
             throw new CharityException("Error uploading file: " + e.getMessage());
+        } finally {
+            deleteTempQuietly(temp);
+        }
+    }
+
+    /**
+     * Copy source to target through a fixed-size buffer, checking the file
+     * signature on the first bytes and the size limit, and hashing the bytes,
+     * as data arrives
+     * @private
+     */
+    private long copyValidated(ReadableByteChannel source, FileChannel target, String extension,
+                               MessageDigest digest) throws IOException {
+        ByteBuffer buffer = COPY_BUFFER.get();
+        buffer.clear();
+
+        // Fill enough of the first chunk to see the signature
+        while (buffer.position() < SIGNATURE_LENGTH) {
+            if (source.read(buffer) < 0) {
+                break;
+            }
+        }
+        if (!signatureMatches(buffer, mimeTypeFor(extension))) {
+            throw new CharityException("File content is not a valid ." + extension + " image");
+        }
+
+        long size = 0;
+        do {
+            size += buffer.position();
+            if (size > MAX_FILE_SIZE) {
+                throw new CharityException("File size exceeds maximum of 5MB");
+            }
+            buffer.flip();
+            digest.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            buffer.clear();
+        } while (source.read(buffer) >= 0);
+
+        return size;
+    }
+
+    /**
+     * Check the leading bytes (magic number) against the expected image type
+     * @private
+     */
+    private static boolean signatureMatches(ByteBuffer buffer, String mimeType) {
+        int length = buffer.position();
+        switch (mimeType) {
+            case "image/jpeg":
+                return length >= 3 && (buffer.get(0) & 0xFF) == 0xFF && (buffer.get(1) & 0xFF) == 0xD8
+                        && (buffer.get(2) & 0xFF) == 0xFF;
+            case "image/png":
+                return startsWith(buffer, length, 0, PNG_SIGNATURE);
+            case "image/gif":
+                return startsWith(buffer, length, 0, "GIF87a".getBytes(StandardCharsets.US_ASCII))
+                        || startsWith(buffer, length, 0, "GIF89a".getBytes(StandardCharsets.US_ASCII));
+            case "image/webp":
+                return startsWith(buffer, length, 0, "RIFF".getBytes(StandardCharsets.US_ASCII))
+                        && startsWith(buffer, length, 8, "WEBP".getBytes(StandardCharsets.US_ASCII));
+            default:
+                return false;
+        }
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int length, int offset, byte[] expected) {
+        if (length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(offset + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * MIME type stored for an allowed extension (taken from the content, not the client)
+     * @private
+     */
+    private static String mimeTypeFor(String extension) {
+        switch (extension.toLowerCase()) {
+            case "jpg":
+            case "jpeg":
+                return "image/jpeg";
+            case "png":
+                return "image/png";
+            case "gif":
+                return "image/gif";
+            default:
+                return "image/webp";
+        }
+    }
+
+    private static void deleteTempQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("Could not delete upload temp file {}: {}", temp, e.getMessage());
         }
     }
 
@@ -118,13 +286,130 @@ public class ImageStorageService {
     }
 
     /**
-     * Generate unique filename
+     * Root of the upload directory
+     */
+    public Path getRoot() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Path of a stored file
+     */
+    public Path resolve(String fileName) {
+        Path root = getRoot();
+        Path path = root.resolve(fileName).normalize();
+        if (!path.startsWith(root)) {
+            throw new CharityException("Invalid file name: " + fileName);
+        }
+        return path;
+    }
+
+    /**
+     * Store a file derived from an upload (e.g. a resized variant), replacing
+     * any previous version atomically
+     */
+    public void storeDerived(String fileName, DerivedWriter writer) throws IOException {
+        Path target = resolve(fileName);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".derived-", ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writer.write(out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            deleteTempQuietly(temp);
+        }
+    }
+
+    /**
+     * Release a file no image row references any more, with its variants.
+     * Skipped (false) while the file is younger than the grace period: an
+     * upload of the same content may have just reused it and not committed
+     * yet; the orphan reconciler picks such files up later. Files are moved
+     * to the quarantine rather than deleted, so if a deduplicated upload
+     * reused the file after the grace check, the reconciler restores it
+     * once that upload's row commits.
+     */
+    public boolean deleteUnreferenced(String fileName, Collection<Integer> variantWidths) {
+        Path path = resolve(fileName);
+        try {
+            if (Files.exists(path)
+                    && Files.getLastModifiedTime(path).toMillis() > System.currentTimeMillis() - deleteGraceMs) {
+                log.debug("Keeping recently written file {} for now", fileName);
+                return false;
+            }
+        } catch (IOException e) {
+            log.warn("Could not read timestamp of {}: {}", fileName, e.getMessage());
+            return false;
+        }
+        for (int width : variantWidths) {
+            quarantineQuietly(ImageVariants.variantName(fileName, width));
+        }
+        quarantineQuietly(fileName);
+        return true;
+    }
+
+    /**
+     * Move a stored file to the quarantine (restarting its retention period)
+     *
+     * @return false if there was no such file
+     */
+    public boolean quarantine(String fileName) throws IOException {
+        Path source = resolve(fileName);
+        Path target = getRoot().resolve(QUARANTINE_DIR).resolve(fileName).normalize();
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        // Retention counts from the move
+        Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+        return true;
+    }
+
+    private void quarantineQuietly(String fileName) {
+        try {
+            if (quarantine(fileName)) {
+                log.info("Image released to quarantine: {}", fileName);
+            }
+        } catch (IOException e) {
+            log.warn("Error releasing file {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the resized variants of a file
+     */
+    public void deleteVariants(String fileName, String variantWidths) {
+        for (int width : ImageVariants.parseWidths(variantWidths)) {
+            deleteImage(ImageVariants.variantName(fileName, width));
+        }
+    }
+
+    /**
+     * Sharded content address: "ab/cd/<sha256>.<ext>" keeps directories small
      * @private
      */
-    private String generateFileName(String imageKey, String extension) {
-        long timestamp = Instant.now().getEpochSecond();
-        String uuid = UUID.randomUUID().toString().substring(0, 8);
-        return String.format("img_%d_%s_%s.%s", timestamp, imageKey, uuid, extension);
+    private static String contentAddressedName(String contentHash, String extension) {
+        String ext = extension.toLowerCase();
+        if (ext.equals("jpeg")) {
+            ext = "jpg";
+        }
+        return contentHash.substring(0, 2) + "/" + contentHash.substring(2, 4) + "/" + contentHash + "." + ext;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     /**
@@ -138,6 +423,14 @@ public class ImageStorageService {
         return fileName.substring(fileName.lastIndexOf(".") + 1);
     }
 
+    /**
+     * Writes the content of a derived file
+     */
+    @FunctionalInterface
+    public interface DerivedWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
     /**
      * Image metadata builder helper class
      */
@@ -150,5 +443,7 @@ public class ImageStorageService {
         private String mimeType;
         private String extension;
         private String fileUrl;
+        private String contentHash;
+        private boolean deduplicated; // Same content was already stored
     }
 }
@@ -0,0 +1,404 @@
+package com.charity.service;
+
+import com.charity.entity.Image;
+import com.charity.entity.ImageVariantJob;
+import com.charity.entity.ImageVariantJobStatus;
+import com.charity.repository.ImageRepository;
+import com.charity.repository.ImageVariantJobRepository;
+import com.charity.util.ImageVariants;
+import com.charity.util.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Generates resized copies of uploaded images in the background and records
+ * their dimensions.
+ *
+ * Work is queued in image_variant_jobs, so it survives restarts and can be
+ * backfilled for existing images. Jobs run on a small bounded pool: each
+ * original is decoded once (subsampled when far larger than the biggest
+ * variant), then scaled down step by step from the largest width to the
+ * smallest. Variants are only generated below the original width; GIFs keep
+ * their animation and get dimensions only. Variants belong to the stored
+ * file, so they are recorded on every image that shares it.
+ */
+@Service
+@Slf4j
+public class ImageVariantService {
+
+    private static final List<ImageVariantJobStatus> OPEN = List.of(ImageVariantJobStatus.PENDING, ImageVariantJobStatus.RUNNING);
+
+    private final ImageRepository imageRepository;
+    private final ImageVariantJobRepository jobRepository;
+    private final ImageStorageService storageService;
+    private final PageBundleCache bundleCache;
+    private final TransactionTemplate transaction;
+    private final ThreadPoolExecutor executor;
+
+    private final List<Integer> widths;
+    private final float jpegQuality;
+    private final int maxAttempts;
+    private final long staleAfterMs;
+    private final long maxPixels;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder variantsWritten = new LongAdder();
+    private final LongAdder superseded = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public ImageVariantService(ImageRepository imageRepository,
+                               ImageVariantJobRepository jobRepository,
+                               ImageStorageService storageService,
+                               PageBundleCache bundleCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${image.variants.widths:160,480,960,1920}") String widths,
+                               @Value("${image.variants.jpeg-quality:0.82}") float jpegQuality,
+                               @Value("${image.variants.threads:2}") int threads,
+                               @Value("${image.variants.queue-capacity:16}") int queueCapacity,
+                               @Value("${image.variants.max-attempts:3}") int maxAttempts,
+                               @Value("${image.variants.stale-after-ms:600000}") long staleAfterMs,
+                               @Value("${image.variants.max-pixels:40000000}") long maxPixels) {
+        this.imageRepository = imageRepository;
+        this.jobRepository = jobRepository;
+        this.storageService = storageService;
+        this.bundleCache = bundleCache;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.widths = ImageVariants.parseWidths(widths).stream()
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList());
+        this.jpegQuality = jpegQuality;
+        this.maxAttempts = maxAttempts;
+        this.staleAfterMs = staleAfterMs;
+        this.maxPixels = maxPixels;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "image-variants-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queue variant generation for a freshly stored file (call inside the upload
+     * transaction; the job starts once it commits)
+     */
+    public void enqueue(Image image) {
+        ImageVariantJob job = jobRepository.save(newJob(image.getId(), image.getFileName()));
+        TransactionHooks.afterCommit(() -> dispatch(job.getId()));
+    }
+
+    /**
+     * Queue every image that has not been processed yet (or all of them, e.g.
+     * after the configured widths changed). Returns the number of jobs created.
+     */
+    public int backfill(boolean all) {
+        Integer created = transaction.execute(status -> {
+            List<ImageVariantJob> jobs = new ArrayList<>();
+            for (Object[] row : imageRepository.findVariantBackfillCandidates(all, OPEN)) {
+                jobs.add(newJob((Long) row[0], (String) row[1]));
+            }
+            jobRepository.saveAll(jobs);
+            return jobs.size();
+        });
+        log.info("Queued {} image variant jobs (all={})", created, all);
+        dispatchPending();
+        return created;
+    }
+
+    /**
+     * Requeue jobs abandoned by a dead worker and hand pending jobs to the pool
+     */
+    @Scheduled(fixedDelayString = "${image.variants.poll-interval-ms:10000}")
+    public void poll() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer requeued = transaction.execute(status ->
+                    jobRepository.requeueStale(now.minus(Duration.ofMillis(staleAfterMs)), now));
+            if (requeued != null && requeued > 0) {
+                log.warn("Requeued {} stale image variant jobs", requeued);
+            }
+            dispatchPending();
+        } catch (Exception e) {
+            log.error("Image variant poll failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Configured variant widths, largest first
+     */
+    public List<Integer> getWidths() {
+        return Collections.unmodifiableList(widths);
+    }
+
+    public Map<String, Object> getStats() {
+        long done = processed.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("widths", widths);
+        stats.put("threads", executor.getMaximumPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("pendingJobs", jobRepository.countByStatus(ImageVariantJobStatus.PENDING));
+        stats.put("runningJobs", jobRepository.countByStatus(ImageVariantJobStatus.RUNNING));
+        stats.put("failedJobs", jobRepository.countByStatus(ImageVariantJobStatus.FAILED));
+        stats.put("processed", done);
+        stats.put("variantsWritten", variantsWritten.sum());
+        stats.put("superseded", superseded.sum());
+        stats.put("failures", failures.sum());
+        stats.put("avgJobMillis", done == 0 ? 0.0 : totalNanos.sum() / 1e6 / done);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished jobs stay RUNNING and are requeued after stale-after-ms
+        executor.shutdownNow();
+    }
+
+    private void dispatchPending() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        for (Long id : jobRepository.findPendingIds(PageRequest.of(0, capacity))) {
+            if (!dispatch(id)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Claim a job and run it on the pool; false when the pool is full
+     */
+    private boolean dispatch(Long jobId) {
+        Integer claimed = transaction.execute(status -> jobRepository.claim(jobId, LocalDateTime.now()));
+        if (claimed == null || claimed == 0) {
+            return true;
+        }
+        try {
+            executor.execute(() -> process(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Left for the next poll
+            transaction.execute(status -> jobRepository.unclaim(jobId));
+            return false;
+        }
+    }
+
+    private void process(Long jobId) {
+        long started = System.nanoTime();
+        ImageVariantJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        try {
+            Image image = imageRepository.findById(job.getImageId()).orElse(null);
+            if (image == null || !job.getSourceFileName().equals(image.getFileName())) {
+                // Deleted or replaced since the job was queued
+                transaction.execute(status -> {
+                    jobRepository.deleteById(jobId);
+                    return null;
+                });
+                superseded.increment();
+                return;
+            }
+
+            Generated generated = generate(image);
+            String variantWidths = ImageVariants.formatWidths(generated.getWidths());
+            Integer updated = transaction.execute(status -> {
+                int rows = imageRepository.updateVariants(image.getFileName(),
+                        generated.getWidth(), generated.getHeight(), variantWidths);
+                jobRepository.deleteById(jobId);
+                jobRepository.deleteFailedForImage(image.getId());
+                return rows;
+            });
+
+            if (updated == null || updated == 0) {
+                storageService.deleteVariants(image.getFileName(), variantWidths);
+                superseded.increment();
+                return;
+            }
+
+            // Widths no longer configured
+            List<Integer> stale = ImageVariants.parseWidths(image.getVariantWidths());
+            stale.removeAll(generated.getWidths());
+            storageService.deleteVariants(image.getFileName(), ImageVariants.formatWidths(stale));
+
+            // Every image sharing the file got the variants
+            bundleCache.refreshAfterCommit(imageRepository.findPageNamesByFileName(image.getFileName()));
+            processed.increment();
+            variantsWritten.add(generated.getWidths().size());
+            totalNanos.add(System.nanoTime() - started);
+            log.debug("Image variants for {}: {}x{} -> [{}]", image.getImageKey(), generated.getWidth(), generated.getHeight(), variantWidths);
+
+        } catch (Exception e) {
+            failures.increment();
+            ImageVariantJobStatus next = job.getAttempts() >= maxAttempts
+                    ? ImageVariantJobStatus.FAILED
+                    : ImageVariantJobStatus.PENDING;
+            String error = String.valueOf(e.getMessage());
+            log.warn("Image variant job {} failed (attempt {}): {}", jobId, job.getAttempts(), error);
+            transaction.execute(status -> jobRepository.release(jobId, next,
+                    error.length() > 500 ? error.substring(0, 500) : error, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Decode the original once and write every variant narrower than it
+     */
+    private Generated generate(Image image) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(storageService.resolve(image.getFileName()).toFile())) {
+            if (in == null) {
+                throw new IOException("File not found: " + image.getFileName());
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                // No decoder for this format (e.g. WebP): nothing to record
+                return new Generated(null, null, List.of());
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                List<Integer> targets = widths.stream().filter(w -> w < width).collect(Collectors.toList());
+                boolean animated = "gif".equalsIgnoreCase(reader.getFormatName());
+                if (targets.isEmpty() || animated || (long) width * height > maxPixels) {
+                    return new Generated(width, height, List.of());
+                }
+
+                // Skip source pixels we would throw away anyway, keeping at least 2x the largest variant
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = width / (targets.get(0) * 2);
+                if (step >= 2) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                BufferedImage current = reader.read(0, param);
+
+                boolean jpeg = "image/jpeg".equals(image.getMimeType());
+                List<Integer> written = new ArrayList<>();
+                for (int targetWidth : targets) {
+                    int targetHeight = Math.max(1, Math.round(height * (float) targetWidth / width));
+                    current = resize(current, targetWidth, targetHeight, jpeg);
+                    BufferedImage variant = current;
+                    storageService.storeDerived(ImageVariants.variantName(image.getFileName(), targetWidth), out -> {
+                        if (jpeg) {
+                            writeJpeg(variant, out);
+                        } else {
+                            ImageIO.write(variant, "png", out);
+                        }
+                    });
+                    written.add(targetWidth);
+                }
+                return new Generated(width, height, written);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale down in halving steps (plain bilinear aliases badly on big reductions)
+     */
+    private static BufferedImage resize(BufferedImage source, int width, int height, boolean opaque) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(w / 2, width);
+            h = Math.max(h / 2, height);
+            BufferedImage next = new BufferedImage(w, h, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (opaque) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, w, h);
+                }
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static ImageVariantJob newJob(Long imageId, String fileName) {
+        ImageVariantJob job = new ImageVariantJob();
+        job.setImageId(imageId);
+        job.setSourceFileName(fileName);
+        job.setStatus(ImageVariantJobStatus.PENDING);
+        job.setAttempts(0);
+        return job;
+    }
+
+    /**
+     * Original dimensions and the widths actually written
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class Generated {
+        private final Integer width;
+        private final Integer height;
+        private final List<Integer> widths;
+    }
+}
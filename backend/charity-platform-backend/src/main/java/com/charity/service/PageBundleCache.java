@@ -0,0 +1,317 @@
+package com.charity.service;
+
+import com.charity.dto.response.ImageResponse;
+import com.charity.repository.ImageRepository;
+import com.charity.repository.PublishedPageRepository;
+import com.charity.util.TransactionHooks;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Precomputed page bundles: published content values plus active image metadata in one document.
+ *
+ * A bundle is built once per change (after the content or image write
+ * commits) and kept as raw JSON bytes and a gzipped copy, so serving it is
+ * a memory copy. The version is a hash of the bundle, used for
+ * version-keyed, immutable URLs. Only pages that are published or have
+ * active images are kept; every other name gets the shared empty bundle,
+ * so requests for arbitrary page names neither grow the map nor look
+ * like a change to the static site renderer. Once loadAll() has run, a
+ * miss is answered without a query; changes made on other nodes are
+ * picked up by PagePublishService's sync via {@link #findImageChanges}.
+ */
+@Component
+@Slf4j
+public class PageBundleCache {
+
+    private final PageContentSnapshotCache contentSnapshots;
+    private final ImageRepository imageRepository;
+    private final PublishedPageRepository publishedPageRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransaction;
+
+    private final PageBundle empty;
+
+    private final Map<String, PageBundle> bundles = new ConcurrentHashMap<>();
+    // Orders concurrent builds of a page so a slow one never replaces a newer bundle
+    private final AtomicLong sequence = new AtomicLong();
+    // Bumped only when the set of kept bundles changes
+    private final AtomicLong generation = new AtomicLong();
+
+    // Set once every kept page has a bundle; from then on a miss means "nothing to keep"
+    private volatile boolean loaded;
+    // Active image count and latest updatedAt per page, as last seen in the database
+    private final Map<String, String> imageFingerprints = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+
+    public PageBundleCache(PageContentSnapshotCache contentSnapshots,
+                           ImageRepository imageRepository,
+                           PublishedPageRepository publishedPageRepository,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager) {
+        this.contentSnapshots = contentSnapshots;
+        this.imageRepository = imageRepository;
+        this.publishedPageRepository = publishedPageRepository;
+        this.objectMapper = objectMapper;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("content", Collections.emptyMap());
+        document.put("images", Collections.emptyList());
+        String version = versionOf(objectMapper.writeValueAsBytes(document));
+        document.put("version", version);
+        byte[] json = objectMapper.writeValueAsBytes(document);
+        this.empty = new PageBundle(null, version, json, gzip(json), 0);
+    }
+
+    /**
+     * Build bundles for every page that is published or has images
+     * (called by PagePublishService at startup, after the content snapshots)
+     */
+    public void loadAll() {
+        findImageChanges();
+        Set<String> pages = findPageNames();
+        pages.forEach(this::rebuildQuietly);
+        loaded = true;
+        log.info("Built page bundles for {} pages", pages.size());
+    }
+
+    /**
+     * Current bundle for a page; the shared empty bundle if the page is neither
+     * published nor has active images. Only reads the database before loadAll() has run.
+     */
+    public PageBundle get(String pageName) {
+        PageBundle bundle = bundles.get(pageName);
+        if (bundle != null) {
+            hits.increment();
+            return bundle;
+        }
+        if (loaded) {
+            misses.increment();
+            return empty;
+        }
+        return rebuild(pageName);
+    }
+
+    /**
+     * Pages whose active images changed since the last call, judged by image count and
+     * latest updatedAt (catches uploads, edits and deletes committed on other nodes)
+     */
+    public Set<String> findImageChanges() {
+        List<Object[]> rows = readTransaction.execute(status -> imageRepository.findActiveImageFingerprints());
+        Map<String, String> current = new HashMap<>();
+        for (Object[] row : rows) {
+            current.put((String) row[0], row[1] + ":" + row[2]);
+        }
+
+        Set<String> changed = new TreeSet<>();
+        current.forEach((pageName, fingerprint) -> {
+            if (!fingerprint.equals(imageFingerprints.put(pageName, fingerprint))) {
+                changed.add(pageName);
+            }
+        });
+        imageFingerprints.keySet().removeIf(pageName -> !current.containsKey(pageName) && changed.add(pageName));
+        return changed;
+    }
+
+    /**
+     * Rebuild the given pages once the current transaction commits.
+     * Register after PageContentSnapshotCache so the new content snapshot is used.
+     */
+    public void refreshAfterCommit(Collection<String> pageNames) {
+        Set<String> pages = pageNames.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (pages.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> pages.forEach(this::rebuildQuietly));
+    }
+
+    /**
+     * Names of every page that is published or has images, read from the database
+     * (not from the cache, which only holds pages that have been built)
+     */
+    public Set<String> findPageNames() {
+        return readTransaction.execute(status -> {
+            Set<String> pages = new TreeSet<>(publishedPageRepository.findDistinctPageNames());
+            pages.addAll(imageRepository.findDistinctPageNames());
+            return pages;
+        });
+    }
+
+    /**
+     * Current version of every kept page, for clients building version-keyed bundle URLs
+     */
+    public Map<String, String> getVersions() {
+        Map<String, String> versions = new TreeMap<>();
+        bundles.forEach((pageName, bundle) -> versions.put(pageName, bundle.getVersion()));
+        return versions;
+    }
+
+    /**
+     * Bumped whenever a bundle is added, replaced or dropped; lets consumers (static site) cheaply detect changes
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pages", bundles.size());
+        stats.put("bytes", bundles.values().stream().mapToLong(b -> b.getJson().length).sum());
+        stats.put("gzipBytes", bundles.values().stream().mapToLong(b -> b.getGzip().length).sum());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("builds", builds.sum());
+        return stats;
+    }
+
+    private void rebuildQuietly(String pageName) {
+        try {
+            rebuild(pageName);
+        } catch (Exception e) {
+            if (bundles.remove(pageName) != null) {
+                generation.incrementAndGet();
+            }
+            log.warn("Could not rebuild page bundle for '{}': {}", pageName, e.getMessage());
+        }
+    }
+
+    private PageBundle rebuild(String pageName) {
+        long seq = sequence.incrementAndGet();
+        PageContentSnapshotCache.PageSnapshot snapshot = contentSnapshots.get(pageName);
+        List<ImageResponse> images = readTransaction.execute(status ->
+                imageRepository.findResponsesByPageNameAndStatus(pageName, "active"));
+
+        if (snapshot.getVersion() == 0 && images.isEmpty()) {
+            // Unless a newer build got in first, there is nothing to keep for this name
+            PageBundle dropped = bundles.get(pageName);
+            if (dropped != null && dropped.sequence <= seq && bundles.remove(pageName, dropped)) {
+                generation.incrementAndGet();
+            }
+            return empty;
+        }
+        Map<String, String> content = snapshot.getContent();
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("page", pageName);
+        document.put("content", content);
+        document.put("images", images);
+        String version = versionOf(objectMapper.writeValueAsBytes(document));
+
+        Map<String, Object> versioned = new LinkedHashMap<>();
+        versioned.put("page", pageName);
+        versioned.put("version", version);
+        versioned.put("content", content);
+        versioned.put("images", images);
+        byte[] json = objectMapper.writeValueAsBytes(versioned);
+
+        builds.increment();
+        PageBundle fresh = new PageBundle(pageName, version, json, gzip(json), seq);
+        PageBundle previous = bundles.get(pageName);
+        PageBundle installed = bundles.merge(pageName, fresh,
+                (current, candidate) -> candidate.sequence >= current.sequence ? candidate : current);
+        if (installed == fresh && (previous == null || !previous.getVersion().equals(version))) {
+            generation.incrementAndGet();
+        }
+        return installed;
+    }
+
+    private static String versionOf(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 3 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * One page bundle, frozen: identity JSON bytes and gzipped bytes
+     * (pageName is null for the shared empty bundle)
+     */
+    @Getter
+    public static final class PageBundle {
+        private final String pageName;
+        private final String version;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final long sequence;
+
+        private PageBundle(String pageName, String version, byte[] json, byte[] gzip, long sequence) {
+            this.pageName = pageName;
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+            this.sequence = sequence;
+        }
+
+        public boolean isEmpty() {
+            return pageName == null;
+        }
+
+        /**
+         * Strong ETag (quoted) of the identity body, derived from the version
+         */
+        public String getEtag() {
+            return "\"" + version + "\"";
+        }
+
+        /**
+         * Strong ETag (quoted) of the gzip body; differs from the identity one since the bytes differ
+         */
+        public String getGzipEtag() {
+            return "\"" + version + "-gz\"";
+        }
+
+        /**
+         * Whether an If-None-Match header matches either representation of this bundle
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(getEtag()) || candidate.equals(getGzipEtag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
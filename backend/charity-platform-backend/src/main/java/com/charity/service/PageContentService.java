@@ -1,9 +1,13 @@
 package com.charity.service;
 
+import com.charity.dto.request.BatchUpdateMode;
 import com.charity.dto.request.ContentUpdateRequest;
 import com.charity.dto.response.ContentResponse;
+import com.charity.dto.response.ContentRevisionResponse;
+import com.charity.dto.response.ContentUpdateResult;
 import com.charity.entity.AdminUser;
 import com.charity.entity.PageContent;
+import com.charity.exception.CharityException;
 import com.charity.exception.UnauthorizedException;
 import com.charity.repository.AdminUserRepository;
 import com.charity.repository.PageContentRepository;
@@ -12,9 +16,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Draft content editing. Rows in pagecontent are the working copy; the public
+ * read path serves published snapshots (see PagePublishService).
+ */
 @Service
 @Transactional
 @Slf4j
@@ -26,8 +35,17 @@ public class PageContentService {
     @Autowired
     private AdminUserRepository adminUserRepository;
 
+    @Autowired
+    private PageContentSnapshotCache snapshotCache;
+
+    @Autowired
+    private ContentRevisionService revisionService;
+
+    @Autowired
+    private CmsSearchIndex searchIndex;
+
     /**
-     * Update or create a single content item
+     * Update or create a single content item (draft; visitors see it once the page is published)
      */
     public ContentResponse updateContent(ContentUpdateRequest request, String adminUsername) {
 
@@ -38,6 +56,7 @@ public class PageContentService {
         // Step 2: Check if content already exists
         PageContent content = contentRepository.findByContentKey(request.getContentKey())
                 .orElse(new PageContent());
+        String previousValue = content.getContentValue();
 
         // Step 3: Update fields
         content.setContentKey(request.getContentKey());
@@ -49,110 +68,264 @@ public class PageContentService {
         // Step 4: Save to database
         PageContent saved = contentRepository.save(content);
         log.info("Content updated: '{}' by {}", request.getContentKey(), adminUsername);
+        searchIndex.indexContent(saved);
+        revisionService.record(List.of(new ContentRevisionService.Change(saved.getContentKey(),
+                saved.getPageName(), previousValue, saved.getContentValue(), saved.getDescription())), adminUsername);
 
         // Step 5: Return response
         return ContentResponse.fromEntity(saved);
     }
 
     /**
-     * Update multiple content items in batch
+     * Update multiple content items in batch.
+     *
+     * All keys are loaded with one IN query and written with saveAll, so
+     * Hibernate flushes the changes as JDBC batches at commit. In ATOMIC mode
+     * any invalid item rejects the whole batch; in BEST_EFFORT mode invalid
+     * items are reported and skipped. Database errors always roll back the
+     * whole batch.
+     *
+     * @param adminId admin ID from the token ("uid" claim), or null to look it up by username
      */
-    public List<ContentResponse> batchUpdateContent(
+    public List<ContentUpdateResult> batchUpdateContent(
             List<ContentUpdateRequest> requests,
+            String defaultPageName,
+            BatchUpdateMode mode,
+            Long adminId,
             String adminUsername) {
+        return batchUpdateContent(requests, defaultPageName, mode, adminId, adminUsername, null);
+    }
 
-        // Get admin user
-        AdminUser admin = adminUserRepository.findByUsername(adminUsername)
-                .orElseThrow(() -> new UnauthorizedException("Admin not found"));
+    /**
+     * @param existing current rows by key, already loaded by the caller; null to load them here
+     */
+    private List<ContentUpdateResult> batchUpdateContent(
+            List<ContentUpdateRequest> requests,
+            String defaultPageName,
+            BatchUpdateMode mode,
+            Long adminId,
+            String adminUsername,
+            Map<String, PageContent> existing) {
 
-        // Process each request
-        return requests.stream()
-                .map(request -> {
-                    try {
-                        PageContent content = contentRepository.findByContentKey(request.getContentKey())
-                                .orElse(new PageContent());
-
-                        content.setContentKey(request.getContentKey());
-                        content.setContentValue(request.getContentValue());
-                        content.setPageName(request.getPageName() != null ? request.getPageName() : "landing");
-                        content.setDescription(request.getDescription());
-                        content.setUpdatedBy(admin);
-
-                        PageContent saved = contentRepository.save(content);
-                        log.debug("Batch update: saved '{}'", request.getContentKey());
-
-                        return saved;
-                    } catch (Exception e) {
-                        log.error("Error updating content '{}': {}", request.getContentKey(), e.getMessage());
-                        return null;
-                    }
-                })
-                .filter(content -> content != null)
-                .map(ContentResponse::fromEntity)
-                .collect(Collectors.toList());
+        // Reference only: no SELECT for the admin when the token carries its ID
+        AdminUser admin = adminId != null
+                ? adminUserRepository.getReferenceById(adminId)
+                : adminUserRepository.findByUsername(adminUsername)
+                        .orElseThrow(() -> new UnauthorizedException("Admin not found"));
+
+        // Step 1: Validate items (duplicates, column limits)
+        Map<String, String> errors = new LinkedHashMap<>();
+        Map<String, ContentUpdateRequest> valid = new LinkedHashMap<>();
+        for (ContentUpdateRequest request : requests) {
+            String error = validateBatchItem(request, defaultPageName);
+            if (error == null && valid.containsKey(request.getContentKey())) {
+                error = "Duplicate content key in batch";
+                valid.remove(request.getContentKey());
+            }
+            if (error != null) {
+                errors.put(request.getContentKey(), error);
+            } else if (!errors.containsKey(request.getContentKey())) {
+                valid.put(request.getContentKey(), request);
+            }
+        }
+
+        if (!errors.isEmpty() && mode != BatchUpdateMode.BEST_EFFORT) {
+            throw new CharityException("Batch rejected, nothing was saved: " + errors.entrySet().stream()
+                    .map(e -> e.getKey() + ": " + e.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+
+        // Step 2: Load every existing row in one query (unless the caller already has them)
+        if (existing == null) {
+            existing = contentRepository.findByContentKeyIn(valid.keySet()).stream()
+                    .collect(Collectors.toMap(PageContent::getContentKey, c -> c));
+        }
+
+        // Step 3: Apply changes in memory
+        List<PageContent> toSave = new ArrayList<>();
+        Map<String, String> statuses = new HashMap<>();
+        List<ContentRevisionService.Change> changes = new ArrayList<>();
+        for (ContentUpdateRequest request : valid.values()) {
+            String pageName = pageNameFor(request, defaultPageName);
+            PageContent content = existing.get(request.getContentKey());
+
+            if (content != null
+                    && Objects.equals(content.getContentValue(), request.getContentValue())
+                    && Objects.equals(content.getPageName(), pageName)
+                    && Objects.equals(content.getDescription(), request.getDescription())) {
+                statuses.put(request.getContentKey(), "UNCHANGED");
+                continue;
+            }
+
+            if (content == null) {
+                content = new PageContent();
+                content.setContentKey(request.getContentKey());
+                statuses.put(request.getContentKey(), "CREATED");
+            } else {
+                statuses.put(request.getContentKey(), "UPDATED");
+            }
+            changes.add(new ContentRevisionService.Change(request.getContentKey(), pageName,
+                    content.getContentValue(), request.getContentValue(), request.getDescription()));
+            content.setContentValue(request.getContentValue());
+            content.setPageName(pageName);
+            content.setDescription(request.getDescription());
+            content.setUpdatedBy(admin);
+            toSave.add(content);
+        }
+
+        // Step 4: One saveAll; updates are flushed as JDBC batches
+        Map<String, PageContent> saved = contentRepository.saveAll(toSave).stream()
+                .collect(Collectors.toMap(PageContent::getContentKey, c -> c));
+        contentRepository.flush();
+        revisionService.record(changes, adminUsername);
+        saved.values().forEach(searchIndex::indexContent);
+        log.info("Batch update by {}: {} saved, {} unchanged, {} failed",
+                adminUsername, saved.size(), valid.size() - saved.size(), errors.size());
+
+        // Step 5: Per-key results in request order
+        List<ContentUpdateResult> results = new ArrayList<>(requests.size());
+        Set<String> reported = new HashSet<>();
+        for (ContentUpdateRequest request : requests) {
+            String key = request.getContentKey();
+            if (!reported.add(key)) {
+                continue;
+            }
+            if (errors.containsKey(key)) {
+                results.add(ContentUpdateResult.builder().contentKey(key).status("FAILED").error(errors.get(key)).build());
+                continue;
+            }
+            PageContent content = saved.containsKey(key) ? saved.get(key) : existing.get(key);
+            results.add(ContentUpdateResult.builder()
+                    .contentKey(key)
+                    .status(statuses.get(key))
+                    .content(saved.containsKey(key) ? ContentResponse.fromEntity(content, adminUsername)
+                            : ContentResponse.fromEntity(content))
+                    .build());
+        }
+        return results;
     }
 
     /**
      * Get single content by key
      */
     public ContentResponse getContent(String contentKey) {
-        PageContent content = contentRepository.findByContentKey(contentKey)
+        return contentRepository.findResponseByContentKey(contentKey)
                 .orElseThrow(() -> new RuntimeException("Content not found: " + contentKey));
-
-        return ContentResponse.fromEntity(content);
     }
 
     /**
      * Get all content for a page
      */
     public List<ContentResponse> getPageContent(String pageName) {
-        List<PageContent> contents = contentRepository.findByPageNameOrderByKey(pageName);
-
-        return contents.stream()
-                .map(ContentResponse::fromEntity)
-                .collect(Collectors.toList());
+        return contentRepository.findResponsesByPageName(pageName);
     }
 
     /**
-     * Get all content as a map (for easier frontend use)
+     * Get the published content as a map (for easier frontend use), served from the in-memory snapshot
      */
     public java.util.Map<String, String> getPageContentAsMap(String pageName) {
-        List<PageContent> contents = contentRepository.findByPageName(pageName);
-
-        java.util.Map<String, String> contentMap = new java.util.HashMap<>();
-        contents.forEach(content ->
-                contentMap.put(content.getContentKey(), content.getContentValue())
-        );
+        return snapshotCache.get(pageName).getContent();
+    }
 
-        return contentMap;
+    /**
+     * Get the immutable, pre-serialized snapshot of the published page (JSON bytes + ETag)
+     */
+    public PageContentSnapshotCache.PageSnapshot getPageSnapshot(String pageName) {
+        return snapshotCache.get(pageName);
     }
 
     /**
-     * Delete content by key
+     * Delete content by key (recorded as a delete revision)
      */
-    public void deleteContent(String contentKey) {
+    public void deleteContent(String contentKey, String adminUsername) {
         PageContent content = contentRepository.findByContentKey(contentKey)
                 .orElseThrow(() -> new RuntimeException("Content not found: " + contentKey));
 
         contentRepository.delete(content);
-        log.info("Content deleted: '{}'", contentKey);
+        searchIndex.removeContent(contentKey);
+        revisionService.record(List.of(new ContentRevisionService.Change(contentKey, content.getPageName(),
+                content.getContentValue(), null, content.getDescription())), adminUsername);
+        log.info("Content deleted: '{}' by {}", contentKey, adminUsername);
+    }
+
+    /**
+     * Restore a key to the value it had at a revision.
+     * The restore is a normal edit, so it appends a new revision and can itself be undone.
+     */
+    public ContentResponse rollbackContent(String contentKey, int revision, String adminUsername) {
+        com.charity.entity.PageContentRevision target = revisionService.getRevision(contentKey, revision);
+        String value = revisionService.getValueAt(contentKey, revision);
+        if (value == null) {
+            throw new CharityException("Content '" + contentKey + "' was deleted at revision " + revision);
+        }
+
+        ContentUpdateRequest request = new ContentUpdateRequest();
+        request.setContentKey(contentKey);
+        request.setContentValue(value);
+        request.setPageName(target.getPageName());
+        request.setDescription(target.getDescription());
+        return updateContent(request, adminUsername);
+    }
+
+    /**
+     * Restore a whole page to how it looked at an instant: keys that existed then
+     * get their old values back, keys added since are deleted. One transaction;
+     * current rows are loaded once and removed keys are deleted as one batch.
+     */
+    public Map<String, String> rollbackPage(String pageName, LocalDateTime at, String adminUsername) {
+        Map<String, String> snapshot = revisionService.getPageAt(pageName, at);
+        if (snapshot.isEmpty()) {
+            throw new CharityException("No content recorded for page '" + pageName + "' at " + at);
+        }
+
+        Map<String, PageContent> current = new HashMap<>();
+        List<PageContent> removed = new ArrayList<>();
+        for (PageContent content : contentRepository.findByPageNameOrContentKeyIn(pageName, snapshot.keySet())) {
+            if (snapshot.containsKey(content.getContentKey())) {
+                current.put(content.getContentKey(), content);
+            } else {
+                removed.add(content);
+            }
+        }
+
+        List<ContentUpdateRequest> requests = new ArrayList<>();
+        snapshot.forEach((key, value) -> {
+            ContentUpdateRequest request = new ContentUpdateRequest();
+            request.setContentKey(key);
+            request.setContentValue(value);
+            request.setPageName(pageName);
+            if (current.containsKey(key)) {
+                request.setDescription(current.get(key).getDescription());
+            }
+            requests.add(request);
+        });
+        batchUpdateContent(requests, pageName, BatchUpdateMode.ATOMIC, null, adminUsername, current);
+
+        if (!removed.isEmpty()) {
+            contentRepository.deleteAll(removed);
+            removed.forEach(content -> searchIndex.removeContent(content.getContentKey()));
+            revisionService.record(removed.stream()
+                    .map(content -> new ContentRevisionService.Change(content.getContentKey(), content.getPageName(),
+                            content.getContentValue(), null, content.getDescription()))
+                    .toList(), adminUsername);
+        }
+        log.info("Page '{}' rolled back to {} by {}", pageName, at, adminUsername);
+        return snapshot;
     }
 
     /**
      * Get recent updates across all pages
      */
     public List<ContentResponse> getRecentUpdates() {
-        return contentRepository.findRecentUpdates().stream()
-                .map(ContentResponse::fromEntity)
-                .collect(Collectors.toList());
+        return contentRepository.findRecentUpdateResponses();
     }
 
     /**
-     * Get update history for a specific page
+     * Get update history for a specific page (latest 100 revisions, newest first)
      */
-    public List<ContentResponse> getPageUpdateHistory(String pageName) {
-        return contentRepository.findByPageNameOrderByKey(pageName).stream()
-                .map(ContentResponse::fromEntity)
+    public List<ContentRevisionResponse> getPageUpdateHistory(String pageName) {
+        return revisionService.getPageHistory(pageName).stream()
+                .map(ContentRevisionResponse::fromEntity)
                 .collect(Collectors.toList());
     }
 
@@ -164,11 +337,46 @@ public class PageContentService {
     }
 
     /**
-     * Search content by keyword
+     * Search content by keyword (ranked, via the search index; top 50)
      */
     public List<ContentResponse> searchContent(String keyword) {
-        return contentRepository.searchContent(keyword).stream()
-                .map(ContentResponse::fromEntity)
+        List<String> keys = searchIndex.search(keyword, CmsSearchIndex.TYPE_CONTENT, null, 0, 50).getHits().stream()
+                .map(CmsSearchIndex.SearchHit::getKey)
+                .collect(Collectors.toList());
+        Map<String, PageContent> found = contentRepository.findByContentKeyIn(keys).stream()
+                .collect(Collectors.toMap(PageContent::getContentKey, c -> c));
+        return keys.stream()
+                .filter(found::containsKey)
+                .map(key -> ContentResponse.fromEntity(found.get(key)))
                 .collect(Collectors.toList());
     }
+
+    private static String pageNameFor(ContentUpdateRequest request, String defaultPageName) {
+        if (request.getPageName() != null) {
+            return request.getPageName();
+        }
+        return defaultPageName != null ? defaultPageName : "landing";
+    }
+
+    /**
+     * Column limits of page_content, checked up front so one bad item cannot fail the flush
+     */
+    private static String validateBatchItem(ContentUpdateRequest request, String defaultPageName) {
+        if (request.getContentKey() == null || request.getContentKey().isBlank()) {
+            return "Content key is required";
+        }
+        if (request.getContentKey().length() > 255) {
+            return "Content key is longer than 255 characters";
+        }
+        if (request.getContentValue() == null || request.getContentValue().isBlank()) {
+            return "Content value is required";
+        }
+        if (pageNameFor(request, defaultPageName).length() > 100) {
+            return "Page name is longer than 100 characters";
+        }
+        if (request.getDescription() != null && request.getDescription().length() > 500) {
+            return "Description is longer than 500 characters";
+        }
+        return null;
+    }
 }
@@ -0,0 +1,241 @@
+package com.charity.service;
+
+import com.charity.entity.PublishedPage;
+import com.charity.repository.PublishedPageRepository;
+import com.charity.util.TransactionHooks;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Immutable, pre-serialized page-map snapshots for the public CMS read path.
+ *
+ * Snapshots hold the live published version of each page (published_pages),
+ * never the draft rows in pagecontent. Each page is held as its JSON bytes
+ * plus a strong ETag (SHA-256 of the bytes), so GET /page-map/{pageName}
+ * needs neither the database nor JSON serialization. PagePublishService
+ * calls {@link #refreshAfterCommit} after a publish; the new snapshot
+ * replaces the old one in a single map put. Only published pages are kept:
+ * every other name gets the shared empty snapshot, so requests for
+ * arbitrary page names cannot grow the map. Once loadAll() has run, a miss
+ * is answered without a query; publishes made on other nodes are picked up
+ * by {@link #syncWithDatabase}, which PagePublishService polls.
+ */
+@Component
+@Slf4j
+public class PageContentSnapshotCache {
+
+    private static final TypeReference<TreeMap<String, String>> CONTENT_MAP = new TypeReference<>() {};
+
+    // Served for pages that were never published (version 0); never stored in the map
+    private static final PageSnapshot EMPTY = emptySnapshot();
+
+    private final PublishedPageRepository publishedPageRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransaction;
+
+    private final Map<String, PageSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Bumped per write so a slow rebuild never replaces a newer snapshot
+    private final AtomicLong generation = new AtomicLong();
+
+    // Set once every published page has a snapshot; from then on a miss means "not published"
+    private volatile boolean loaded;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+
+    public PageContentSnapshotCache(PublishedPageRepository publishedPageRepository,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.publishedPageRepository = publishedPageRepository;
+        this.objectMapper = objectMapper;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Build snapshots for every published page in one query (called by PagePublishService at startup)
+     */
+    public void loadAll() {
+        long gen = generation.get();
+        List<PublishedPage> live = readTransaction.execute(status -> publishedPageRepository.findLiveVersions());
+        live.forEach(page -> install(build(page.getPageName(), page, gen)));
+        loaded = true;
+        log.info("Built content snapshots for {} published pages", live.size());
+    }
+
+    /**
+     * Current snapshot for a page; the shared empty snapshot if it is not published.
+     * Only reads the database before loadAll() has run.
+     */
+    public PageSnapshot get(String pageName) {
+        PageSnapshot snapshot = snapshots.get(pageName);
+        if (snapshot != null) {
+            hits.increment();
+            return snapshot;
+        }
+        if (loaded) {
+            misses.increment();
+            return EMPTY;
+        }
+        return rebuild(pageName);
+    }
+
+    /**
+     * Rebuild pages whose live version differs from their snapshot, and drop pages that are
+     * no longer published (catches publishes committed on other nodes)
+     *
+     * @return names of the pages that were rebuilt or dropped
+     */
+    public Set<String> syncWithDatabase() {
+        List<Object[]> rows = readTransaction.execute(status -> publishedPageRepository.findLiveVersionNumbers());
+        Map<String, Integer> live = new HashMap<>();
+        for (Object[] row : rows) {
+            live.put((String) row[0], ((Number) row[1]).intValue());
+        }
+
+        Set<String> changed = new TreeSet<>();
+        live.forEach((pageName, version) -> {
+            PageSnapshot snapshot = snapshots.get(pageName);
+            if (snapshot == null || snapshot.getVersion() != version) {
+                changed.add(pageName);
+            }
+        });
+        snapshots.keySet().stream().filter(pageName -> !live.containsKey(pageName)).forEach(changed::add);
+
+        changed.forEach(this::rebuildQuietly);
+        if (!changed.isEmpty()) {
+            log.info("Content snapshots synced with published_pages: {}", changed);
+        }
+        return changed;
+    }
+
+    /**
+     * Rebuild the given pages once the current transaction commits
+     */
+    public void refreshAfterCommit(Collection<String> pageNames) {
+        Set<String> pages = new HashSet<>(pageNames);
+        if (pages.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> pages.forEach(this::rebuildQuietly));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pages", snapshots.size());
+        stats.put("bytes", snapshots.values().stream().mapToLong(s -> s.getJson().length).sum());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("builds", builds.sum());
+        return stats;
+    }
+
+    private void rebuildQuietly(String pageName) {
+        try {
+            rebuild(pageName);
+        } catch (Exception e) {
+            // The next sync sees the missing snapshot and retries
+            snapshots.remove(pageName);
+            log.warn("Could not rebuild content snapshot for '{}': {}", pageName, e.getMessage());
+        }
+    }
+
+    private PageSnapshot rebuild(String pageName) {
+        long gen = generation.incrementAndGet();
+        PublishedPage live = readTransaction.execute(status ->
+                publishedPageRepository.findTopByPageNameOrderByVersionDesc(pageName).orElse(null));
+        if (live == null) {
+            // Unless a newer build got in first, there is nothing to keep for this name
+            snapshots.computeIfPresent(pageName, (name, current) -> current.generation <= gen ? null : current);
+            return EMPTY;
+        }
+        return install(build(pageName, live, gen));
+    }
+
+    private PageSnapshot install(PageSnapshot fresh) {
+        return snapshots.merge(fresh.getPageName(), fresh,
+                (current, candidate) -> candidate.generation >= current.generation ? candidate : current);
+    }
+
+    /**
+     * Snapshot of a published version
+     */
+    private PageSnapshot build(String pageName, PublishedPage published, long gen) {
+        builds.increment();
+        // Stored JSON is served as-is; the map is only for in-process readers
+        Map<String, String> content = objectMapper.readValue(published.getContentJson(), CONTENT_MAP);
+        byte[] json = published.getContentJson().getBytes(StandardCharsets.UTF_8);
+        return new PageSnapshot(pageName, Collections.unmodifiableMap(content), json, etagOf(json),
+                published.getVersion(), gen);
+    }
+
+    private static PageSnapshot emptySnapshot() {
+        byte[] json = "{}".getBytes(StandardCharsets.UTF_8);
+        return new PageSnapshot(null, Collections.emptyMap(), json, etagOf(json), 0, 0);
+    }
+
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * One published page, frozen: key/value map, its JSON bytes, strong ETag (quoted) and published version
+     */
+    @Getter
+    public static final class PageSnapshot {
+        private final String pageName;
+        private final Map<String, String> content;
+        private final byte[] json;
+        private final String etag;
+        private final int version;
+        private final long generation;
+
+        private PageSnapshot(String pageName, Map<String, String> content, byte[] json, String etag,
+                             int version, long generation) {
+            this.pageName = pageName;
+            this.content = content;
+            this.json = json;
+            this.etag = etag;
+            this.version = version;
+            this.generation = generation;
+        }
+
+        /**
+         * Whether an If-None-Match header matches this snapshot
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*") || candidate.equals(etag) || candidate.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
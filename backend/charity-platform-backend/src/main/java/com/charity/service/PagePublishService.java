@@ -0,0 +1,209 @@
+package com.charity.service;
+
+import com.charity.dto.response.PagePublishStatusResponse;
+import com.charity.dto.response.PublishedPageResponse;
+import com.charity.entity.PublishedPage;
+import com.charity.exception.CharityException;
+import com.charity.repository.PageContentRepository;
+import com.charity.repository.PublishedPageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Draft/publish workflow.
+ *
+ * Admins edit draft rows (pagecontent) freely. Publishing freezes the
+ * page's full draft map into the next published_pages version; the live
+ * page is the highest version, so the whole page flips at once when the
+ * insert commits. The public read path (page-map, bundles) only ever reads
+ * published snapshots.
+ *
+ * Images are not part of publishing: an upload, metadata edit or delete is
+ * live (in bundles and /admin/images) as soon as its own write commits.
+ */
+@Service
+@Slf4j
+public class PagePublishService {
+
+    private static final TypeReference<TreeMap<String, String>> CONTENT_MAP = new TypeReference<>() {};
+
+    @Autowired
+    private PageContentRepository contentRepository;
+
+    @Autowired
+    private PublishedPageRepository publishedPageRepository;
+
+    @Autowired
+    private PageContentSnapshotCache snapshotCache;
+
+    @Autowired
+    private PageBundleCache bundleCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Publish pages that have drafts but were never published (so existing
+     * content stays live), then build the snapshots and bundles in order
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        Integer published = new TransactionTemplate(transactionManager).execute(status -> {
+            Set<String> pages = new TreeSet<>(contentRepository.findDistinctPageNames());
+            pages.removeAll(publishedPageRepository.findDistinctPageNames());
+            pages.forEach(page -> insertVersion(page, draftOf(page), "bootstrap"));
+            return pages.size();
+        });
+        if (published != null && published > 0) {
+            log.info("Published {} never-published pages from their drafts", published);
+        }
+
+        snapshotCache.loadAll();
+        bundleCache.loadAll();
+    }
+
+    /**
+     * Pick up publishes and image changes committed on other nodes: rebuild changed snapshots, then their bundles
+     */
+    @Scheduled(initialDelayString = "${content.snapshots.sync-interval-ms:30000}",
+            fixedDelayString = "${content.snapshots.sync-interval-ms:30000}")
+    public void syncPublishedPages() {
+        try {
+            Set<String> changed = snapshotCache.syncWithDatabase();
+            changed.addAll(bundleCache.findImageChanges());
+            bundleCache.refreshAfterCommit(changed);
+        } catch (Exception e) {
+            log.warn("Could not sync published pages: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publish the current draft of a page. Publishing an unchanged draft returns the live version.
+     */
+    @Transactional
+    public PublishedPageResponse publish(String pageName, String adminUsername) {
+        TreeMap<String, String> draft = draftOf(pageName);
+        if (draft.isEmpty()) {
+            throw new CharityException("Page '" + pageName + "' has no draft content to publish");
+        }
+
+        Optional<PublishedPage> live = publishedPageRepository.findTopByPageNameOrderByVersionDesc(pageName);
+        if (live.isPresent() && draft.equals(parse(live.get()))) {
+            return PublishedPageResponse.fromEntity(live.get());
+        }
+        return PublishedPageResponse.fromEntity(insertVersion(pageName, draft, adminUsername));
+    }
+
+    /**
+     * Make an earlier published version live again (as a new version; drafts are untouched)
+     */
+    @Transactional
+    public PublishedPageResponse restore(String pageName, int version, String adminUsername) {
+        PublishedPage old = publishedPageRepository.findByPageNameAndVersion(pageName, version)
+                .orElseThrow(() -> new CharityException("Page '" + pageName + "' has no published version " + version));
+        return PublishedPageResponse.fromEntity(insertVersion(pageName, parse(old), adminUsername));
+    }
+
+    /**
+     * Keys added, changed or removed in the draft since the live version
+     */
+    @Transactional(readOnly = true)
+    public PagePublishStatusResponse getStatus(String pageName) {
+        TreeMap<String, String> draft = draftOf(pageName);
+        Optional<PublishedPage> live = publishedPageRepository.findTopByPageNameOrderByVersionDesc(pageName);
+        Map<String, String> published = live.map(this::parse).orElse(new TreeMap<>());
+
+        List<String> added = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        draft.forEach((key, value) -> {
+            if (!published.containsKey(key)) {
+                added.add(key);
+            } else if (!published.get(key).equals(value)) {
+                changed.add(key);
+            }
+        });
+        List<String> removed = published.keySet().stream()
+                .filter(key -> !draft.containsKey(key))
+                .collect(Collectors.toList());
+
+        return PagePublishStatusResponse.builder()
+                .pageName(pageName)
+                .live(live.map(PublishedPageResponse::fromEntity).orElse(null))
+                .upToDate(live.isPresent() && added.isEmpty() && changed.isEmpty() && removed.isEmpty())
+                .addedKeys(added)
+                .changedKeys(changed)
+                .removedKeys(removed)
+                .build();
+    }
+
+    /**
+     * Publish history of a page, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<PublishedPageResponse> getHistory(String pageName) {
+        return publishedPageRepository.findByPageNameOrderByVersionDesc(pageName).stream()
+                .map(PublishedPageResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Draft key/value map of a page (admin preview)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, String> getDraft(String pageName) {
+        return draftOf(pageName);
+    }
+
+    private PublishedPage insertVersion(String pageName, Map<String, String> content, String publishedBy) {
+        int next = publishedPageRepository.findTopByPageNameOrderByVersionDesc(pageName)
+                .map(PublishedPage::getVersion)
+                .orElse(0) + 1;
+
+        PublishedPage page = new PublishedPage();
+        page.setPageName(pageName);
+        page.setVersion(next);
+        page.setContentJson(objectMapper.writeValueAsString(new TreeMap<>(content)));
+        page.setKeyCount(content.size());
+        page.setPublishedBy(publishedBy);
+
+        try {
+            // Flush now so a concurrent publish of the same version fails here, not at commit
+            publishedPageRepository.saveAndFlush(page);
+        } catch (DataIntegrityViolationException e) {
+            throw new CharityException("Page '" + pageName + "' was published concurrently, please retry");
+        }
+
+        List<String> pages = List.of(pageName);
+        snapshotCache.refreshAfterCommit(pages);
+        bundleCache.refreshAfterCommit(pages);
+        log.info("Published page '{}' version {} ({} keys) by {}", pageName, next, content.size(), publishedBy);
+        return page;
+    }
+
+    private TreeMap<String, String> draftOf(String pageName) {
+        TreeMap<String, String> draft = new TreeMap<>();
+        contentRepository.findAllKeyValuesByPageName(pageName)
+                .forEach(row -> draft.put((String) row[0], (String) row[1]));
+        return draft;
+    }
+
+    private TreeMap<String, String> parse(PublishedPage page) {
+        return objectMapper.readValue(page.getContentJson(), CONTENT_MAP);
+    }
+}
@@ -0,0 +1,125 @@
+package com.charity.service;
+
+import com.charity.repository.UserRepository;
+import com.charity.repository.VolunteerRepository;
+import com.charity.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bloom-filter pre-check for email/phone uniqueness on registration.
+ *
+ * A negative answer means the value is definitely not registered, so the
+ * existsBy... query can be skipped. Unique indexes remain the source of
+ * truth: services insert with saveAndFlush and map constraint violations
+ * through {@link #violates}.
+ *
+ * Until the filters are loaded every value "might" exist, so the services
+ * fall back to the existence queries.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RegistrationUniquenessGuard {
+
+    public static final String VOLUNTEER_EMAIL_CONSTRAINT = "uk_volunteers_email";
+    public static final String USER_EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String USER_PHONE_CONSTRAINT = "uk_users_phone";
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 10_000;
+
+    private final VolunteerRepository volunteerRepository;
+    private final UserRepository userRepository;
+
+    private volatile BloomFilter volunteerEmails;
+    private volatile BloomFilter userEmails;
+    private volatile BloomFilter userPhones;
+
+    private final AtomicBoolean reloading = new AtomicBoolean(false);
+
+    /**
+     * Load the filters from the database (projection queries, no entities)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        volunteerEmails = build(volunteerRepository.findAllEmails());
+        userEmails = build(userRepository.findAllEmails());
+        userPhones = build(userRepository.findAllPhones());
+        log.info("Registration uniqueness filters loaded");
+    }
+
+    public boolean mightContainVolunteerEmail(String email) {
+        return mightContain(volunteerEmails, email);
+    }
+
+    public boolean mightContainUserEmail(String email) {
+        return mightContain(userEmails, email);
+    }
+
+    public boolean mightContainUserPhone(String phone) {
+        return mightContain(userPhones, phone);
+    }
+
+    public void recordVolunteerEmail(String email) {
+        record(volunteerEmails, email);
+    }
+
+    public void recordUser(String email, String phone) {
+        record(userEmails, email);
+        record(userPhones, phone);
+    }
+
+    /**
+     * Check whether an insert failed because of the given unique constraint
+     */
+    public static boolean violates(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException cve
+                    && cve.getConstraintName() != null
+                    && cve.getConstraintName().toLowerCase(Locale.ROOT).contains(constraintName)) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase(Locale.ROOT).contains(constraintName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean mightContain(BloomFilter filter, String value) {
+        return filter == null || value == null || filter.mightContain(normalize(value));
+    }
+
+    private void record(BloomFilter filter, String value) {
+        if (filter == null || value == null) {
+            return;
+        }
+        filter.put(normalize(value));
+        if (filter.isSaturated() && reloading.compareAndSet(false, true)) {
+            // Resize in the background; until then the false positive rate just creeps up
+            CompletableFuture.runAsync(this::load).whenComplete((ignored, e) -> reloading.set(false));
+        }
+    }
+
+    private static BloomFilter build(List<String> values) {
+        BloomFilter filter = new BloomFilter(Math.max(MIN_CAPACITY, values.size() * 2L), FALSE_POSITIVE_RATE);
+        values.stream().filter(v -> v != null).forEach(v -> filter.put(normalize(v)));
+        return filter;
+    }
+
+    // MySQL's default collation compares case-insensitively, so the filter does too
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
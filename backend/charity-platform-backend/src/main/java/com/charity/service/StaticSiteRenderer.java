@@ -0,0 +1,285 @@
+package com.charity.service;
+
+import com.charity.dto.response.EventResponse;
+import com.charity.dto.response.ProjectResponse;
+import com.charity.mapper.EventMapper;
+import com.charity.mapper.ProjectMapper;
+import com.charity.repository.CharityProjectRepository;
+import com.charity.repository.EventRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-renders the public read path into static files for nginx/CDN serving.
+ *
+ * Output (under static-site.output-dir), each with a .gz sibling for gzip_static:
+ *   pages/{pageName}.json   published content + active images + top projects + upcoming events
+ *   projects/top.json
+ *   events/upcoming.json
+ *   manifest.json           relative path -> SHA-256 of the rendered bytes
+ *
+ * Rendering is incremental: a file is only rewritten when its hash differs
+ * from the manifest. Every file is written to a temp file in the same
+ * directory and renamed over the target, so a web server never serves a
+ * half-written file. A render runs when a page bundle changed (publish,
+ * image change) and at least every full-interval for projects and events.
+ */
+@Component
+@Slf4j
+public class StaticSiteRenderer {
+
+    private static final Pattern SAFE_PAGE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,100}");
+    private static final String MANIFEST = "manifest.json";
+
+    private final PageBundleCache bundleCache;
+    private final CharityProjectRepository projectRepository;
+    private final EventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransaction;
+
+    private final boolean enabled;
+    private final Path outputDir;
+    private final int topProjects;
+    private final int upcomingEvents;
+    private final long fullIntervalMs;
+
+    private Map<String, String> manifest;
+    private long renderedGeneration = -1;
+    private long lastRenderAt;
+    private RenderStats lastStats;
+
+    public StaticSiteRenderer(PageBundleCache bundleCache,
+                              CharityProjectRepository projectRepository,
+                              EventRepository eventRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${static-site.enabled:false}") boolean enabled,
+                              @Value("${static-site.output-dir:static-site}") String outputDir,
+                              @Value("${static-site.top-projects:6}") int topProjects,
+                              @Value("${static-site.upcoming-events:6}") int upcomingEvents,
+                              @Value("${static-site.full-interval-ms:300000}") long fullIntervalMs) {
+        this.bundleCache = bundleCache;
+        this.projectRepository = projectRepository;
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.outputDir = Paths.get(outputDir).toAbsolutePath().normalize();
+        this.topProjects = topProjects;
+        this.upcomingEvents = upcomingEvents;
+        this.fullIntervalMs = fullIntervalMs;
+    }
+
+    /**
+     * Render when a bundle changed since the last run, or the full interval elapsed
+     */
+    @Scheduled(fixedDelayString = "${static-site.check-interval-ms:5000}")
+    public void renderIfDue() {
+        if (!enabled) {
+            return;
+        }
+        boolean bundlesChanged = bundleCache.getGeneration() != renderedGeneration;
+        if (!bundlesChanged && System.currentTimeMillis() - lastRenderAt < fullIntervalMs) {
+            return;
+        }
+        try {
+            render();
+        } catch (Exception e) {
+            log.error("Static site render failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Render every page, rewriting only files whose content changed
+     */
+    public synchronized RenderStats render() {
+        long started = System.currentTimeMillis();
+        long generation = bundleCache.getGeneration();
+        if (manifest == null) {
+            manifest = readManifest();
+        }
+
+        List<ProjectResponse> projects = readTransaction.execute(status ->
+                projectRepository.findTopProjectsByImpact().stream()
+                        .limit(topProjects)
+                        .map(ProjectMapper::toResponse)
+                        .collect(Collectors.toList()));
+        List<EventResponse> events = readTransaction.execute(status ->
+                eventRepository.findUpcomingEvents(LocalDateTime.now()).stream()
+                        .limit(upcomingEvents)
+                        .map(EventMapper::toResponse)
+                        .collect(Collectors.toList()));
+
+        Map<String, byte[]> files = new TreeMap<>();
+        files.put("projects/top.json", objectMapper.writeValueAsBytes(projects));
+        files.put("events/upcoming.json", objectMapper.writeValueAsBytes(events));
+        for (String pageName : bundleCache.findPageNames()) {
+            if (!SAFE_PAGE_NAME.matcher(pageName).matches()) {
+                log.warn("Skipping page with unsafe file name: '{}'", pageName);
+                continue;
+            }
+            PageBundleCache.PageBundle bundle = bundleCache.get(pageName);
+            if (bundle.isEmpty()) {
+                // Only inactive images and never published
+                continue;
+            }
+            ObjectNode document = (ObjectNode) objectMapper.readTree(bundle.getJson());
+            document.set("topProjects", objectMapper.valueToTree(projects));
+            document.set("upcomingEvents", objectMapper.valueToTree(events));
+            files.put("pages/" + pageName + ".json", objectMapper.writeValueAsBytes(document));
+        }
+
+        int written = 0;
+        int unchanged = 0;
+        Map<String, String> next = new TreeMap<>();
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            String hash = sha256(file.getValue());
+            next.put(file.getKey(), hash);
+            Path target = resolve(file.getKey());
+            if (hash.equals(manifest.get(file.getKey())) && Files.exists(target)) {
+                unchanged++;
+                continue;
+            }
+            writeAtomically(target, file.getValue());
+            writeAtomically(resolve(file.getKey() + ".gz"), gzip(file.getValue()));
+            written++;
+        }
+
+        // Pages that are no longer published
+        int deleted = 0;
+        for (String stale : manifest.keySet()) {
+            if (!next.containsKey(stale)) {
+                deleteQuietly(resolve(stale));
+                deleteQuietly(resolve(stale + ".gz"));
+                deleted++;
+            }
+        }
+
+        if (written > 0 || deleted > 0) {
+            writeAtomically(resolve(MANIFEST), objectMapper.writeValueAsBytes(next));
+        }
+        manifest = next;
+        renderedGeneration = generation;
+        lastRenderAt = System.currentTimeMillis();
+        lastStats = new RenderStats(files.size(), written, unchanged, deleted, lastRenderAt - started);
+        if (written > 0 || deleted > 0) {
+            log.info("Static site rendered to {}: {} written, {} unchanged, {} deleted in {} ms",
+                    outputDir, written, unchanged, deleted, lastStats.getMillis());
+        }
+        return lastStats;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("outputDir", outputDir.toString());
+        stats.put("lastRenderAt", lastRenderAt);
+        stats.put("lastRender", lastStats);
+        return stats;
+    }
+
+    private Path resolve(String relative) {
+        Path path = outputDir.resolve(relative).normalize();
+        if (!path.startsWith(outputDir)) {
+            throw new IllegalArgumentException("Path escapes output directory: " + relative);
+        }
+        return path;
+    }
+
+    /**
+     * Write to a temp file next to the target, then rename over it
+     */
+    private static void writeAtomically(Path target, byte[] bytes) {
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".tmp-", ".part");
+            try {
+                Files.write(temp, bytes);
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + target, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete stale static file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private Map<String, String> readManifest() {
+        Path path = resolve(MANIFEST);
+        if (!Files.exists(path)) {
+            return new TreeMap<>();
+        }
+        try {
+            return objectMapper.readValue(Files.readAllBytes(path), new TypeReference<TreeMap<String, String>>() {});
+        } catch (Exception e) {
+            // A missing or corrupt manifest only costs one full rewrite
+            log.warn("Ignoring unreadable static site manifest: {}", e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 3 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Outcome of one render pass
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class RenderStats {
+        private final int files;
+        private final int written;
+        private final int unchanged;
+        private final int deleted;
+        private final long millis;
+    }
+}
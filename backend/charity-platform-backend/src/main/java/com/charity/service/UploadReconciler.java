@@ -0,0 +1,406 @@
+package com.charity.service;
+
+import com.charity.repository.ImageRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps upload.dir and the images table in agreement.
+ *
+ * Each run handles one bounded batch, so neither side is ever scanned in
+ * one go and no database connection is held between queries:
+ *
+ *   1. The next batch of files, in path order after a cursor. Each file
+ *      whose name (or, for a variant, whose original) no Image row
+ *      references, and that is older than upload.delete-grace-ms, is moved
+ *      to .quarantine/. Stale upload temp files are deleted.
+ *   2. The next batch of Image rows by id, counting rows whose file is missing.
+ *   3. Quarantined files (orphans found here and files released by image
+ *      deletes): deleted after the retention period, or moved back if a row
+ *      references them again.
+ *
+ * The cursors are persisted under .reconcile/, so a restart resumes where
+ * the last run stopped. Totals of the last completed pass over the files
+ * (disk bytes vs. bytes recorded in the table) are reported as drift.
+ */
+@Component
+@Slf4j
+public class UploadReconciler {
+
+    private static final String QUARANTINE_DIR = ImageStorageService.QUARANTINE_DIR;
+    private static final String STATE_DIR = ".reconcile";
+    private static final String STATE_FILE = "state.properties";
+    private static final Pattern VARIANT = Pattern.compile("^(.*)_w\\d+(\\.[^./]+)$");
+    private static final Pattern TEMP_FILE = Pattern.compile("^\\.(upload|derived)-.*\\.part$");
+
+    private final ImageStorageService storageService;
+    private final ImageRepository imageRepository;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long graceMs;
+    private final long quarantineRetentionMs;
+
+    private String fileCursor;
+    private long rowCursor;
+    private String quarantineCursor;
+    private boolean stateLoaded;
+
+    // Running totals of the pass in progress, and the last completed pass
+    private PassTotals current = new PassTotals();
+    private PassTotals lastPass;
+    private long missingFilesInPass;
+    private long lastPassMissingFiles = -1;
+    private long quarantined;
+    private long purged;
+    private long restored;
+    private long tempFilesDeleted;
+    private long lastRunAt;
+    private long lastRunMillis;
+
+    public UploadReconciler(ImageStorageService storageService,
+                            ImageRepository imageRepository,
+                            @Value("${upload.reconcile.enabled:true}") boolean enabled,
+                            @Value("${upload.reconcile.batch-size:500}") int batchSize,
+                            @Value("${upload.delete-grace-ms:600000}") long graceMs,
+                            @Value("${upload.reconcile.quarantine-retention-ms:604800000}") long quarantineRetentionMs) {
+        this.storageService = storageService;
+        this.imageRepository = imageRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.graceMs = graceMs;
+        this.quarantineRetentionMs = quarantineRetentionMs;
+    }
+
+    @Scheduled(initialDelayString = "${upload.reconcile.interval-ms:60000}",
+            fixedDelayString = "${upload.reconcile.interval-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            runBatch();
+        } catch (Exception e) {
+            log.error("Upload reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reconcile one batch of files, one batch of rows and the quarantine
+     */
+    public synchronized void runBatch() throws IOException {
+        long started = System.currentTimeMillis();
+        Path root = storageService.getRoot();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        if (!stateLoaded) {
+            loadState(root);
+            stateLoaded = true;
+        }
+
+        reconcileFiles(root);
+        reconcileRows(root);
+        purgeQuarantine(root);
+        saveState(root);
+
+        lastRunAt = System.currentTimeMillis();
+        lastRunMillis = lastRunAt - started;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("batchSize", batchSize);
+        stats.put("fileCursor", fileCursor);
+        stats.put("rowCursor", rowCursor);
+        stats.put("currentPass", current);
+        stats.put("lastPass", lastPass);
+        if (lastPass != null) {
+            long recorded = imageRepository.getTotalStorageUsed();
+            stats.put("recordedBytes", recorded);
+            stats.put("driftBytes", lastPass.getDiskBytes() - recorded);
+        }
+        stats.put("missingFiles", lastPassMissingFiles);
+        stats.put("quarantined", quarantined);
+        stats.put("purged", purged);
+        stats.put("restored", restored);
+        stats.put("tempFilesDeleted", tempFilesDeleted);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunMillis", lastRunMillis);
+        return stats;
+    }
+
+    private void reconcileFiles(Path root) throws IOException {
+        List<String> batch = new ArrayList<>(batchSize);
+        List<Path> tempFiles = new ArrayList<>();
+        collect(root, root, fileCursor, batch, tempFiles);
+
+        long now = System.currentTimeMillis();
+        for (Path temp : tempFiles) {
+            if (olderThan(temp, now - graceMs) && Files.deleteIfExists(temp)) {
+                tempFilesDeleted++;
+            }
+        }
+        if (batch.isEmpty()) {
+            finishPass();
+            return;
+        }
+
+        Set<String> inUse = referencedNames(batch);
+        for (String name : batch) {
+            Path path = root.resolve(name);
+            long size = sizeOf(path);
+            current.files++;
+            current.diskBytes += size;
+
+            if (inUse.contains(name)) {
+                current.referencedBytes += size;
+                continue;
+            }
+            current.orphanFiles++;
+            current.orphanBytes += size;
+            if (olderThan(path, now - graceMs)) {
+                moveToQuarantine(name);
+            }
+        }
+
+        if (batch.size() < batchSize) {
+            finishPass();
+        } else {
+            fileCursor = batch.get(batch.size() - 1);
+        }
+    }
+
+    private void finishPass() {
+        lastPass = current;
+        current = new PassTotals();
+        fileCursor = null;
+        if (lastPass.orphanFiles > 0) {
+            log.info("Upload reconciliation pass: {} files, {} bytes, {} orphans ({} bytes)",
+                    lastPass.files, lastPass.diskBytes, lastPass.orphanFiles, lastPass.orphanBytes);
+        }
+    }
+
+    /**
+     * Rows whose file is gone (reported, not repaired)
+     */
+    private void reconcileRows(Path root) {
+        List<Object[]> rows = imageRepository.findFileNamesAfter(rowCursor, PageRequest.of(0, batchSize));
+        for (Object[] row : rows) {
+            String fileName = (String) row[1];
+            if (!Files.isRegularFile(root.resolve(fileName).normalize())) {
+                missingFilesInPass++;
+                log.warn("Image row {} references missing file {}", row[0], fileName);
+            }
+        }
+        if (rows.size() < batchSize) {
+            lastPassMissingFiles = missingFilesInPass;
+            missingFilesInPass = 0;
+            rowCursor = 0;
+        } else {
+            rowCursor = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    /**
+     * Delete quarantined files past retention; restore any that are referenced again
+     */
+    private void purgeQuarantine(Path root) throws IOException {
+        Path quarantine = root.resolve(QUARANTINE_DIR);
+        if (!Files.isDirectory(quarantine)) {
+            return;
+        }
+        List<String> batch = new ArrayList<>(batchSize);
+        collect(quarantine, quarantine, quarantineCursor, batch, new ArrayList<>());
+        quarantineCursor = batch.size() < batchSize ? null : batch.get(batch.size() - 1);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<String> inUse = referencedNames(batch);
+        long expiredBefore = System.currentTimeMillis() - quarantineRetentionMs;
+        for (String name : batch) {
+            Path path = quarantine.resolve(name);
+            if (inUse.contains(name)) {
+                Path target = root.resolve(name);
+                Files.createDirectories(target.getParent());
+                Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+                restored++;
+                log.warn("Restored quarantined file {}: it is referenced again", name);
+            } else if (olderThan(path, expiredBefore)) {
+                Files.deleteIfExists(path);
+                purged++;
+            }
+        }
+    }
+
+    /**
+     * The names in a batch that an Image row uses; variants count as used when their original is
+     */
+    private Set<String> referencedNames(List<String> batch) {
+        Map<String, String> originals = new HashMap<>();
+        for (String name : batch) {
+            Matcher variant = VARIANT.matcher(name);
+            originals.put(name, variant.matches() ? variant.group(1) + variant.group(2) : name);
+        }
+        Set<String> lookup = new HashSet<>(batch);
+        lookup.addAll(originals.values());
+        Set<String> referenced = new HashSet<>(imageRepository.findReferencedFileNames(lookup));
+
+        Set<String> inUse = new HashSet<>();
+        for (String name : batch) {
+            if (referenced.contains(name) || referenced.contains(originals.get(name))) {
+                inUse.add(name);
+            }
+        }
+        return inUse;
+    }
+
+    private void moveToQuarantine(String name) {
+        try {
+            if (storageService.quarantine(name)) {
+                quarantined++;
+                log.info("Quarantined orphan upload {}", name);
+            }
+        } catch (IOException e) {
+            log.warn("Could not quarantine {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Depth-first walk in path order, collecting up to batchSize files after the cursor.
+     * Dot entries are skipped; upload temp files among them are reported separately.
+     */
+    private boolean collect(Path root, Path dir, String cursor, List<String> out, List<Path> tempFiles) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            stream.forEach(entries::add);
+        }
+        entries.sort(Comparator.comparing(p -> p.getFileName().toString()));
+
+        for (Path entry : entries) {
+            String fileName = entry.getFileName().toString();
+            if (fileName.startsWith(".")) {
+                if (TEMP_FILE.matcher(fileName).matches()) {
+                    tempFiles.add(entry);
+                }
+                continue;
+            }
+            String relative = root.relativize(entry).toString().replace('\\', '/');
+            if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                // Skip subtrees that lie entirely before the cursor
+                if (cursor != null && comparePaths(relative, cursor) < 0 && !cursor.startsWith(relative + "/")) {
+                    continue;
+                }
+                if (collect(root, entry, cursor, out, tempFiles)) {
+                    return true;
+                }
+            } else if (Files.isRegularFile(entry, LinkOption.NOFOLLOW_LINKS)
+                    && (cursor == null || comparePaths(relative, cursor) > 0)) {
+                out.add(relative);
+                if (out.size() >= batchSize) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Segment-by-segment order, the order of the sorted depth-first walk
+     */
+    static int comparePaths(String a, String b) {
+        String[] left = a.split("/");
+        String[] right = b.split("/");
+        for (int i = 0; i < Math.min(left.length, right.length); i++) {
+            int compared = left[i].compareTo(right[i]);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    }
+
+    private static boolean olderThan(Path path, long epochMillis) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis() < epochMillis;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void loadState(Path root) {
+        Path file = root.resolve(STATE_DIR).resolve(STATE_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties state = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            state.load(in);
+            String cursor = state.getProperty("fileCursor");
+            fileCursor = cursor == null || cursor.isEmpty() ? null : cursor;
+            rowCursor = Long.parseLong(state.getProperty("rowCursor", "0"));
+            String quarantine = state.getProperty("quarantineCursor");
+            quarantineCursor = quarantine == null || quarantine.isEmpty() ? null : quarantine;
+        } catch (Exception e) {
+            // A lost cursor only restarts the pass
+            log.warn("Ignoring unreadable reconciler state: {}", e.getMessage());
+        }
+    }
+
+    private void saveState(Path root) {
+        Properties state = new Properties();
+        state.setProperty("fileCursor", fileCursor == null ? "" : fileCursor);
+        state.setProperty("rowCursor", Long.toString(rowCursor));
+        state.setProperty("quarantineCursor", quarantineCursor == null ? "" : quarantineCursor);
+        try {
+            Path dir = root.resolve(STATE_DIR);
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, "state-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                state.store(out, "Upload reconciler cursors");
+            }
+            try {
+                Files.move(temp, dir.resolve(STATE_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, dir.resolve(STATE_FILE), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Could not save reconciler state: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Totals over one pass through the upload directory
+     */
+    @Getter
+    public static class PassTotals {
+        private long files;
+        private long diskBytes;
+        private long referencedBytes;
+        private long orphanFiles;
+        private long orphanBytes;
+    }
+}
@@ -4,10 +4,12 @@ package com.charity.service;
 import com.charity.entity.*;
 import com.charity.repository.*;
 import com.charity.exception.*;
+import com.charity.security.PasswordHashingExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
@@ -20,32 +22,61 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor hashingExecutor;
+
+    @Autowired
+    private RegistrationUniquenessGuard uniquenessGuard;
 
     /**
-     * Register a new user (signup)
+     * Register a new user (signup).
+     * No transaction: hashing waits on the pool; saveAndFlush commits in the repository's own.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User registerUser(User user) {
-        // Check if email already exists
-        if (userRepository.existsByEmail(user.getEmail())) {
+        // Check if email already exists (skipped when the Bloom filter rules it out)
+        if (uniquenessGuard.mightContainUserEmail(user.getEmail())
+                && userRepository.existsByEmail(user.getEmail())) {
             throw new UserAlreadyExistsException("Email already registered: " + user.getEmail());
         }
 
-        // Check if phone already exists
-        if (userRepository.existsByPhone(user.getPhone())) {
+        // Check if phone already exists (skipped when the Bloom filter rules it out)
+        if (uniquenessGuard.mightContainUserPhone(user.getPhone())
+                && userRepository.existsByPhone(user.getPhone())) {
             throw new UserAlreadyExistsException("Phone already registered: " + user.getPhone());
         }
 
         // Encode password before saving
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(hashingExecutor.encode(user.getPassword()));
         user.setRole(UserRole.VIEWER); // Default role for new users
         user.setApproved(false); // Require admin approval
 
-        User savedUser = userRepository.save(user);
+        User savedUser = saveNewUser(user);
         log.info("New user registered: {} (ID: {})", user.getEmail(), savedUser.getId());
         return savedUser;
     }
 
+    /**
+     * Insert a new user, relying on the unique indexes to catch duplicates
+     * (including concurrent registrations that both passed the pre-check)
+     */
+    public User saveNewUser(User user) {
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (RegistrationUniquenessGuard.violates(e, RegistrationUniquenessGuard.USER_PHONE_CONSTRAINT)) {
+                throw new UserAlreadyExistsException("Phone already registered: " + user.getPhone());
+            }
+            if (RegistrationUniquenessGuard.violates(e, RegistrationUniquenessGuard.USER_EMAIL_CONSTRAINT)) {
+                throw new UserAlreadyExistsException("Email already registered: " + user.getEmail());
+            }
+            // NOT NULL, length, foreign key...: not a duplicate
+            throw e;
+        }
+        uniquenessGuard.recordUser(savedUser.getEmail(), savedUser.getPhone());
+        return savedUser;
+    }
+
     /**
      * Find user by email (for login)
      */
@@ -123,10 +154,11 @@ public class UserService {
     }
 
     /**
-     * Verify password for login
+     * Verify password for login (no transaction: don't hold a connection while waiting on the hashing pool)
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean verifyPassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return hashingExecutor.matches(rawPassword, encodedPassword);
     }
 
     /**
@@ -0,0 +1,135 @@
+package com.charity.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces volunteer activity pings in memory.
+ *
+ * Each ping only updates a lock-free map (volunteer ID -> epoch millis,
+ * newest wins). A scheduled flush writes all pending values with one
+ * UPDATE ... CASE statement per chunk, and the map is drained on shutdown.
+ * Read paths merge pending values so callers see activity immediately.
+ */
+@Component
+@Slf4j
+public class VolunteerActivityTracker {
+
+    private static final int MAX_IDS_PER_STATEMENT = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    public VolunteerActivityTracker(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record activity for a volunteer (no database access)
+     */
+    public void touch(Long volunteerId, long epochMillis) {
+        pending.merge(volunteerId, epochMillis, Math::max);
+    }
+
+    /**
+     * Pending (not yet flushed) last-active time for a volunteer, or null
+     */
+    public LocalDateTime getPendingLastActive(Long volunteerId) {
+        Long millis = pending.get(volunteerId);
+        return millis != null ? toLocalDateTime(millis) : null;
+    }
+
+    /**
+     * Number of volunteers with unflushed activity
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Write all pending activity to the database
+     */
+    @Scheduled(fixedDelayString = "${volunteer.activity.flush-interval-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Long>> batch = new ArrayList<>(pending.size());
+        pending.forEach((id, millis) -> batch.add(Map.entry(id, millis)));
+
+        int written = 0;
+        for (int from = 0; from < batch.size(); from += MAX_IDS_PER_STATEMENT) {
+            List<Map.Entry<Long, Long>> chunk = batch.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, batch.size()));
+            try {
+                written += transactionTemplate.execute(status -> updateChunk(chunk));
+                // Only drop entries that were not touched again while we were writing
+                chunk.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+            } catch (Exception e) {
+                log.warn("Failed to flush volunteer activity ({} entries kept for retry): {}",
+                        chunk.size(), e.getMessage());
+            }
+        }
+        log.debug("Flushed lastActiveAt for {} volunteers", written);
+    }
+
+    /**
+     * Flush whatever is left before the application stops
+     */
+    @PreDestroy
+    public void drain() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("{} volunteer activity updates could not be flushed on shutdown", pending.size());
+        }
+    }
+
+    /**
+     * UPDATE volunteers SET last_active_at = CASE id WHEN ? THEN ? ... END WHERE id IN (...)
+     */
+    private int updateChunk(List<Map.Entry<Long, Long>> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE volunteers SET last_active_at = CASE id");
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(" WHEN ?").append(2 * i + 1).append(" THEN ?").append(2 * i + 2);
+            ids.append(i == 0 ? "" : ", ").append('?').append(2 * chunk.size() + i + 1);
+        }
+        sql.append(" ELSE last_active_at END WHERE id IN (").append(ids).append(')');
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < chunk.size(); i++) {
+            Map.Entry<Long, Long> entry = chunk.get(i);
+            query.setParameter(2 * i + 1, entry.getKey());
+            query.setParameter(2 * i + 2, toLocalDateTime(entry.getValue()));
+            query.setParameter(2 * chunk.size() + i + 1, entry.getKey());
+        }
+        return query.executeUpdate();
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
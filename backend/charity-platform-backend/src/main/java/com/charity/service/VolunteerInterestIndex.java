@@ -0,0 +1,450 @@
+package com.charity.service;
+
+import com.charity.entity.Volunteer;
+import com.charity.entity.VolunteerStatus;
+import com.charity.repository.VolunteerRepository;
+import com.charity.util.TransactionHooks;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over volunteers.
+ *
+ * Keeps one bitmap of volunteer IDs per interest, ward and status so that
+ * multi-interest matching ("Education AND Healthcare in Kibra") is a handful
+ * of bitwise operations instead of one JOIN per interest.
+ *
+ * The index is loaded once at startup and kept in sync by VolunteerService.
+ * Writes are applied after the surrounding transaction commits, so a
+ * rolled-back registration never shows up in the index. A query that
+ * arrives before the startup load builds the index first instead of
+ * answering from an empty one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VolunteerInterestIndex {
+
+    private final VolunteerRepository volunteerRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, BitSet> byInterest = new HashMap<>();
+    private final Map<String, BitSet> byWard = new HashMap<>();
+    private final Map<VolunteerStatus, BitSet> byStatus = new EnumMap<>(VolunteerStatus.class);
+    private final BitSet allVolunteers = new BitSet();
+    private final Map<Integer, IndexedVolunteer> entries = new HashMap<>();
+
+    // Writes applied while rebuild() reads rows outside the lock; replayed on top of the loaded state
+    private List<Runnable> writesDuringRebuild;
+
+    // Set once the first rebuild has completed
+    private volatile boolean loaded;
+
+    // Bumped by every rebuild and re-index (not by activity pings); lets caches of derived results go stale
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Load the index at startup, unless a query already did
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        ensureLoaded();
+    }
+
+    /**
+     * Load the whole index from the database (two projection queries).
+     * Updates that commit while the rows are being read are replayed afterwards, so none are lost.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Integer, IndexedVolunteer> rows = new HashMap<>();
+        List<Runnable> replay;
+        try {
+            for (Object[] row : volunteerRepository.findIndexRows()) {
+                int id = toBit((Long) row[0]);
+                rows.put(id, new IndexedVolunteer(
+                        id,
+                        (String) row[1],
+                        (VolunteerStatus) row[2],
+                        toEpochMillis((LocalDateTime) row[3]),
+                        new HashSet<>()
+                ));
+            }
+            for (Object[] row : volunteerRepository.findInterestRows()) {
+                IndexedVolunteer entry = rows.get(toBit((Long) row[0]));
+                if (entry != null && row[1] != null) {
+                    entry.interests.add(normalize((String) row[1]));
+                }
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                replay = writesDuringRebuild;
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            byInterest.clear();
+            byWard.clear();
+            byStatus.clear();
+            allVolunteers.clear();
+            entries.clear();
+            rows.values().forEach(this::add);
+            replay.forEach(Runnable::run);
+            generation.incrementAndGet();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Volunteer index loaded: {} volunteers, {} interests, {} wards ({} concurrent updates replayed)",
+                rows.size(), byInterest.size(), byWard.size(), replay.size());
+    }
+
+    /**
+     * Index (or re-index) a volunteer once the current transaction commits
+     */
+    public void index(Volunteer volunteer) {
+        IndexedVolunteer entry = new IndexedVolunteer(
+                toBit(volunteer.getId()),
+                volunteer.getWard(),
+                volunteer.getStatus(),
+                toEpochMillis(volunteer.getLastActiveAt()),
+                normalizeAll(volunteer.getInterests())
+        );
+        TransactionHooks.afterCommit(() -> apply(() -> {
+            remove(entry.id);
+            add(entry.copy());
+            generation.incrementAndGet();
+        }));
+    }
+
+    /**
+     * Record activity without touching ward/interest bitmaps
+     */
+    public void touch(Long volunteerId, long epochMillis) {
+        int id = toBit(volunteerId);
+        apply(() -> {
+            IndexedVolunteer entry = entries.get(id);
+            if (entry != null && epochMillis > entry.lastActiveMillis) {
+                entry.lastActiveMillis = epochMillis;
+            }
+        });
+    }
+
+    /**
+     * Changes whenever a volunteer's ward, status or interests may have changed
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Check whether a volunteer ID is known to the index
+     */
+    public boolean contains(Long volunteerId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return allVolunteers.get(toBit(volunteerId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluate a boolean query and return one page of matching IDs (ascending)
+     *
+     * @param allInterests     volunteer must have every one of these (AND)
+     * @param anyInterests     volunteer must have at least one of these (OR)
+     * @param excludeInterests volunteer must have none of these (NOT)
+     * @param wards            volunteer must be in one of these wards
+     * @param status           required status, or null for any
+     * @param activeSince      minimum lastActiveAt in epoch millis, or null
+     */
+    public MatchResult match(Collection<String> allInterests,
+                             Collection<String> anyInterests,
+                             Collection<String> excludeInterests,
+                             Collection<String> wards,
+                             VolunteerStatus status,
+                             Long activeSince,
+                             int page,
+                             int size) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) allVolunteers.clone();
+
+            if (status != null) {
+                result.and(byStatus.getOrDefault(status, new BitSet()));
+            }
+            if (notEmpty(allInterests)) {
+                for (String interest : allInterests) {
+                    result.and(byInterest.getOrDefault(normalize(interest), new BitSet()));
+                }
+            }
+            if (notEmpty(anyInterests)) {
+                result.and(union(byInterest, anyInterests));
+            }
+            if (notEmpty(wards)) {
+                result.and(union(byWard, wards));
+            }
+            if (notEmpty(excludeInterests)) {
+                result.andNot(union(byInterest, excludeInterests));
+            }
+            if (activeSince != null) {
+                for (int id = result.nextSetBit(0); id >= 0; id = result.nextSetBit(id + 1)) {
+                    if (entries.get(id).lastActiveMillis < activeSince) {
+                        result.clear(id);
+                    }
+                }
+            }
+
+            int total = result.cardinality();
+            List<Long> ids = new ArrayList<>(Math.min(size, total));
+            // long arithmetic: a huge page number must skip everything, not overflow into a valid offset
+            long skip = Math.max(0L, (long) page * size);
+            if (skip >= total) {
+                return new MatchResult(total, new ArrayList<>());
+            }
+            for (int id = result.nextSetBit(0); id >= 0 && ids.size() < size; id = result.nextSetBit(id + 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    ids.add((long) id);
+                }
+            }
+            return new MatchResult(total, ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flatten all volunteers with the given status into primitive arrays for scoring.
+     *
+     * @param interest interest to flag (e.g. the project category), may be null
+     * @param location free-text location; wards whose name appears in it are flagged
+     */
+    public CandidateArrays candidates(VolunteerStatus status, String interest, String location) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            BitSet selected = (BitSet) byStatus.getOrDefault(status, new BitSet()).clone();
+            BitSet interested = interest != null
+                    ? byInterest.getOrDefault(normalize(interest), new BitSet())
+                    : new BitSet();
+
+            BitSet inWard = new BitSet();
+            if (location != null) {
+                String normalizedLocation = normalize(location);
+                byWard.forEach((ward, bits) -> {
+                    if (normalizedLocation.contains(ward)) {
+                        inWard.or(bits);
+                    }
+                });
+            }
+
+            int count = selected.cardinality();
+            long[] ids = new long[count];
+            boolean[] wardMatch = new boolean[count];
+            boolean[] interestMatch = new boolean[count];
+            long[] lastActiveMillis = new long[count];
+
+            int i = 0;
+            for (int id = selected.nextSetBit(0); id >= 0; id = selected.nextSetBit(id + 1), i++) {
+                ids[i] = id;
+                wardMatch[i] = inWard.get(id);
+                interestMatch[i] = interested.get(id);
+                lastActiveMillis[i] = entries.get(id).lastActiveMillis;
+            }
+            return new CandidateArrays(ids, wardMatch, interestMatch, lastActiveMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count volunteers per interest (useful for coordinator dashboards)
+     */
+    public Map<String, Integer> interestCounts() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = new TreeMap<>();
+            byInterest.forEach((interest, bits) -> counts.put(interest, bits.cardinality()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply a write now, and remember it for replay if a rebuild is reading rows
+     */
+    private void apply(Runnable write) {
+        lock.writeLock().lock();
+        try {
+            write.run();
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== internal helpers (callers hold the write lock) =====
+
+    private void add(IndexedVolunteer entry) {
+        entries.put(entry.id, entry);
+        allVolunteers.set(entry.id);
+        if (entry.status != null) {
+            byStatus.computeIfAbsent(entry.status, s -> new BitSet()).set(entry.id);
+        }
+        if (entry.ward != null) {
+            byWard.computeIfAbsent(normalize(entry.ward), w -> new BitSet()).set(entry.id);
+        }
+        entry.interests.forEach(interest ->
+                byInterest.computeIfAbsent(interest, i -> new BitSet()).set(entry.id));
+    }
+
+    private void remove(int id) {
+        IndexedVolunteer existing = entries.remove(id);
+        if (existing == null) {
+            return;
+        }
+        allVolunteers.clear(id);
+        if (existing.status != null) {
+            byStatus.get(existing.status).clear(id);
+        }
+        if (existing.ward != null) {
+            clearBit(byWard, normalize(existing.ward), id);
+        }
+        existing.interests.forEach(interest -> clearBit(byInterest, interest, id));
+    }
+
+    private static void clearBit(Map<String, BitSet> bitmaps, String key, int id) {
+        BitSet bits = bitmaps.get(key);
+        if (bits != null) {
+            bits.clear(id);
+            if (bits.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static BitSet union(Map<String, BitSet> bitmaps, Collection<String> keys) {
+        BitSet union = new BitSet();
+        for (String key : keys) {
+            BitSet bits = bitmaps.get(normalize(key));
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    private static boolean notEmpty(Collection<String> values) {
+        return values != null && !values.isEmpty();
+    }
+
+    private static Set<String> normalizeAll(Collection<String> values) {
+        Set<String> normalized = new HashSet<>();
+        if (values != null) {
+            values.stream().filter(Objects::nonNull).map(VolunteerInterestIndex::normalize).forEach(normalized::add);
+        }
+        return normalized;
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int toBit(Long id) {
+        return Math.toIntExact(id);
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+
+    /**
+     * Minimal per-volunteer state kept alongside the bitmaps
+     */
+    private static final class IndexedVolunteer {
+        private final int id;
+        private final String ward;
+        private final VolunteerStatus status;
+        private long lastActiveMillis;
+        private final Set<String> interests;
+
+        private IndexedVolunteer(int id, String ward, VolunteerStatus status,
+                                 long lastActiveMillis, Set<String> interests) {
+            this.id = id;
+            this.ward = ward;
+            this.status = status;
+            this.lastActiveMillis = lastActiveMillis;
+            this.interests = interests;
+        }
+
+        /**
+         * Fresh copy, so a replayed write never shares mutable state with the entry it installed first
+         */
+        private IndexedVolunteer copy() {
+            return new IndexedVolunteer(id, ward, status, lastActiveMillis, interests);
+        }
+    }
+
+    /**
+     * Column-oriented view of candidate volunteers (same index = same volunteer)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class CandidateArrays {
+        private final long[] ids;
+        private final boolean[] wardMatch;
+        private final boolean[] interestMatch;
+        private final long[] lastActiveMillis;
+    }
+
+    /**
+     * One page of matching volunteer IDs plus the total match count
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class MatchResult {
+        private final int total;
+        private final List<Long> volunteerIds;
+    }
+}
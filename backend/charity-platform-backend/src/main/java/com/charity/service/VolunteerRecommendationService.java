@@ -0,0 +1,335 @@
+package com.charity.service;
+
+import com.charity.dto.response.VolunteerRecommendationResponse;
+import com.charity.entity.Event;
+import com.charity.entity.EventStatus;
+import com.charity.entity.Volunteer;
+import com.charity.entity.VolunteerStatus;
+import com.charity.repository.EventRepository;
+import com.charity.repository.VolunteerRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Suggests best-fit volunteers for an event.
+ *
+ * Each active volunteer is scored on:
+ *  - ward proximity (volunteer's ward named in the event location)
+ *  - interest overlap with the linked project's category
+ *  - lastActiveAt recency (exponential decay)
+ *  - past attendance (registrations on completed events)
+ *
+ * Scoring runs as a fork-join task over the primitive arrays exported by
+ * VolunteerInterestIndex; only the final top-N are loaded as entities.
+ */
+@Service
+@Slf4j
+public class VolunteerRecommendationService {
+
+    private static final double WARD_WEIGHT = 0.35;
+    private static final double INTEREST_WEIGHT = 0.30;
+    private static final double RECENCY_WEIGHT = 0.20;
+    private static final double ATTENDANCE_WEIGHT = 0.15;
+
+    private static final double RECENCY_HALF_LIFE_DAYS = 30.0;
+    private static final int ATTENDANCE_SATURATION = 10;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private VolunteerInterestIndex volunteerIndex;
+
+    @Autowired
+    private VolunteerRepository volunteerRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Value("${recommendations.default-limit:10}")
+    private int defaultLimit;
+
+    @Value("${recommendations.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${recommendations.cache-max-size:1000}")
+    private int cacheMaxSize;
+
+    @Value("${recommendations.parallel-threshold:2048}")
+    private int parallelThreshold;
+
+    // CPU-only scoring; database work never runs on this pool
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    // One background thread for precomputing new events; extra requests are dropped when it is busy
+    private final ThreadPoolExecutor precomputeExecutor = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64),
+            r -> {
+                Thread t = new Thread(r, "volunteer-recommendations");
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    /**
+     * Precomputed recommendations per event ID (filled on event creation and nightly).
+     * Replaced as a whole by the nightly batch, so readers never see it half-filled.
+     * An entry is recomputed when the event's location or category changed, or when
+     * any volunteer was re-indexed since it was computed (index generation).
+     */
+    private volatile Map<Long, CachedRecommendations> precomputed = new ConcurrentHashMap<>();
+
+    /**
+     * Get recommended volunteers for an event, using the precomputed list when available
+     */
+    public List<VolunteerRecommendationResponse> getRecommendations(Long eventId, Integer limit) {
+        int n = Math.max(1, Math.min(limit != null ? limit : defaultLimit, maxLimit));
+        Event event = eventService.getEventById(eventId);
+        Set<Long> registered = new HashSet<>(eventRepository.findRegisteredVolunteerIds(eventId));
+        int wanted = n + registered.size();
+
+        // A list computed for at least this many is complete even if shorter (fewer candidates)
+        Map<Long, CachedRecommendations> cache = precomputed;
+        CachedRecommendations cached = cache.get(eventId);
+        if (cached == null || cached.getRequested() < wanted || !cached.isCurrent(event, volunteerIndex.getGeneration())) {
+            cached = compute(event, wanted, loadAttendanceCounts());
+            if (cache.size() >= cacheMaxSize && !cache.containsKey(eventId)) {
+                evictOldest(cache);
+            }
+            cache.put(eventId, cached);
+        }
+
+        return cached.getRecommendations().stream()
+                .filter(r -> !registered.contains(r.getVolunteerId()))
+                .limit(n)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Compute recommendations for a newly created event in the background
+     */
+    public void precomputeAsync(Long eventId) {
+        precomputeExecutor.execute(() -> {
+            try {
+                getRecommendations(eventId, null);
+            } catch (Exception e) {
+                log.warn("Could not precompute recommendations for event {}: {}", eventId, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        precomputeExecutor.shutdownNow();
+    }
+
+    /**
+     * Nightly batch: precompute recommendations for every upcoming event
+     */
+    @Scheduled(cron = "${recommendations.batch-cron:0 0 2 * * *}")
+    public void precomputeUpcomingEvents() {
+        long start = System.currentTimeMillis();
+        int[] attendance = loadAttendanceCounts();
+
+        Map<Long, CachedRecommendations> fresh = new ConcurrentHashMap<>();
+        for (Event event : eventService.getUpcomingEvents()) {
+            int wanted = defaultLimit + eventRepository.findRegisteredVolunteerIds(event.getId()).size();
+            fresh.put(event.getId(), compute(event, wanted, attendance));
+        }
+
+        precomputed = fresh;
+        log.info("Precomputed volunteer recommendations for {} upcoming events in {} ms",
+                fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    private CachedRecommendations compute(Event event, int wanted, int[] attendance) {
+        // Read before scoring, so a volunteer change during scoring makes the entry stale
+        long generation = volunteerIndex.getGeneration();
+        return new CachedRecommendations(wanted, inputsOf(event), generation, System.currentTimeMillis(),
+                recommend(event, wanted, attendance));
+    }
+
+    /**
+     * Drop the entry computed longest ago (only runs when the cache is full)
+     */
+    private static void evictOldest(Map<Long, CachedRecommendations> cache) {
+        cache.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().getComputedAt()))
+                .ifPresent(oldest -> cache.remove(oldest.getKey(), oldest.getValue()));
+    }
+
+    /**
+     * The event fields scoring depends on
+     */
+    private static String inputsOf(Event event) {
+        String category = event.getProject() != null ? event.getProject().getCategory() : null;
+        return event.getLocation() + "|" + category;
+    }
+
+    /**
+     * Score all active volunteers for one event and return the top N
+     */
+    private List<VolunteerRecommendationResponse> recommend(Event event, int n, int[] attendance) {
+        String category = event.getProject() != null ? event.getProject().getCategory() : null;
+        VolunteerInterestIndex.CandidateArrays candidates =
+                volunteerIndex.candidates(VolunteerStatus.ACTIVE, category, event.getLocation());
+
+        long now = LocalDateTime.now().toInstant(ZoneOffset.UTC).toEpochMilli();
+        float[] scores = new float[candidates.getIds().length];
+        int[] top = pool.invoke(new ScoreTask(candidates, attendance, now, scores, n, 0, scores.length));
+
+        List<Long> topIds = Arrays.stream(top).mapToObj(i -> candidates.getIds()[i]).collect(Collectors.toList());
+        Map<Long, Volunteer> volunteers = volunteerRepository.findAllById(topIds).stream()
+                .collect(Collectors.toMap(Volunteer::getId, Function.identity()));
+
+        List<VolunteerRecommendationResponse> result = new ArrayList<>(top.length);
+        for (int i : top) {
+            Volunteer volunteer = volunteers.get(candidates.getIds()[i]);
+            if (volunteer == null) {
+                continue;
+            }
+            result.add(VolunteerRecommendationResponse.builder()
+                    .volunteerId(volunteer.getId())
+                    .name(volunteer.getName())
+                    .ward(volunteer.getWard())
+                    .score(scores[i])
+                    .wardMatch(candidates.getWardMatch()[i])
+                    .interestMatch(candidates.getInterestMatch()[i])
+                    .pastAttendance(attendanceOf(attendance, candidates.getIds()[i]))
+                    .lastActiveAt(volunteer.getLastActiveAt())
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Registrations on completed events, indexed by volunteer ID
+     */
+    private int[] loadAttendanceCounts() {
+        List<Object[]> rows = eventRepository.countRegistrationsByVolunteer(EventStatus.COMPLETED);
+        int maxId = rows.stream().mapToInt(r -> Math.toIntExact((Long) r[0])).max().orElse(-1);
+        int[] counts = new int[maxId + 1];
+        for (Object[] row : rows) {
+            counts[Math.toIntExact((Long) row[0])] = ((Long) row[1]).intValue();
+        }
+        return counts;
+    }
+
+    private static int attendanceOf(int[] attendance, long volunteerId) {
+        return volunteerId < attendance.length ? attendance[(int) volunteerId] : 0;
+    }
+
+    /**
+     * Top volunteers for an event, computed for `requested` slots
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class CachedRecommendations {
+        private final int requested;
+        private final String eventInputs;
+        private final long indexGeneration;
+        private final long computedAt;
+        private final List<VolunteerRecommendationResponse> recommendations;
+
+        boolean isCurrent(Event event, long currentGeneration) {
+            return indexGeneration == currentGeneration && eventInputs.equals(inputsOf(event));
+        }
+    }
+
+    /**
+     * Scores a slice of the candidate arrays and returns the indices of its top N, best first
+     */
+    private class ScoreTask extends RecursiveTask<int[]> {
+        private final VolunteerInterestIndex.CandidateArrays candidates;
+        private final int[] attendance;
+        private final long now;
+        private final float[] scores;
+        private final int n;
+        private final int from;
+        private final int to;
+
+        ScoreTask(VolunteerInterestIndex.CandidateArrays candidates, int[] attendance, long now,
+                  float[] scores, int n, int from, int to) {
+            this.candidates = candidates;
+            this.attendance = attendance;
+            this.now = now;
+            this.scores = scores;
+            this.n = n;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > parallelThreshold) {
+                int mid = (from + to) >>> 1;
+                ScoreTask left = new ScoreTask(candidates, attendance, now, scores, n, from, mid);
+                ScoreTask right = new ScoreTask(candidates, attendance, now, scores, n, mid, to);
+                left.fork();
+                int[] rightTop = right.compute();
+                return merge(left.join(), rightTop);
+            }
+
+            long[] ids = candidates.getIds();
+            boolean[] wardMatch = candidates.getWardMatch();
+            boolean[] interestMatch = candidates.getInterestMatch();
+            long[] lastActive = candidates.getLastActiveMillis();
+
+            // Min-heap of indices keeps the best N seen so far in this slice
+            PriorityQueue<Integer> heap = new PriorityQueue<>(n + 1, (a, b) -> Float.compare(scores[a], scores[b]));
+            for (int i = from; i < to; i++) {
+                double score = 0;
+                if (wardMatch[i]) score += WARD_WEIGHT;
+                if (interestMatch[i]) score += INTEREST_WEIGHT;
+                if (lastActive[i] > 0) {
+                    double idleDays = Math.max(0, now - lastActive[i]) / 86_400_000.0;
+                    score += RECENCY_WEIGHT * Math.pow(0.5, idleDays / RECENCY_HALF_LIFE_DAYS);
+                }
+                int attended = Math.min(attendanceOf(attendance, ids[i]), ATTENDANCE_SATURATION);
+                score += ATTENDANCE_WEIGHT * attended / ATTENDANCE_SATURATION;
+
+                scores[i] = (float) score;
+                heap.offer(i);
+                if (heap.size() > n) {
+                    heap.poll();
+                }
+            }
+            return drainDescending(heap);
+        }
+
+        private int[] merge(int[] a, int[] b) {
+            int[] merged = new int[Math.min(n, a.length + b.length)];
+            int i = 0, j = 0;
+            for (int k = 0; k < merged.length; k++) {
+                merged[k] = (j >= b.length || (i < a.length && scores[a[i]] >= scores[b[j]])) ? a[i++] : b[j++];
+            }
+            return merged;
+        }
+
+        private int[] drainDescending(PriorityQueue<Integer> heap) {
+            int[] result = new int[heap.size()];
+            for (int k = result.length - 1; k >= 0; k--) {
+                result[k] = heap.poll();
+            }
+            return result;
+        }
+    }
+}
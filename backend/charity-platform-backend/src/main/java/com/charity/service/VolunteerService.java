@@ -5,10 +5,20 @@ import com.charity.repository.*;
 import com.charity.exception.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 // ==================== VOLUNTEER SERVICE ====================
@@ -20,16 +30,39 @@ public class VolunteerService {
     @Autowired
     private VolunteerRepository volunteerRepository;
 
+    @Autowired
+    private VolunteerInterestIndex volunteerIndex;
+
+    @Autowired
+    private VolunteerActivityTracker activityTracker;
+
+    @Autowired
+    private RegistrationUniquenessGuard uniquenessGuard;
+
     /**
      * Register a new volunteer
      */
     public Volunteer registerVolunteer(Volunteer volunteer) {
-        if (volunteerRepository.existsByEmail(volunteer.getEmail())) {
+        // Only query when the Bloom filter says the email might already exist
+        if (uniquenessGuard.mightContainVolunteerEmail(volunteer.getEmail())
+                && volunteerRepository.existsByEmail(volunteer.getEmail())) {
             throw new VolunteerAlreadyExistsException("Email already registered: " + volunteer.getEmail());
         }
 
         volunteer.setStatus(VolunteerStatus.ACTIVE);
-        Volunteer savedVolunteer = volunteerRepository.save(volunteer);
+        Volunteer savedVolunteer;
+        try {
+            // Flush now so a concurrent duplicate hits the unique index here
+            savedVolunteer = volunteerRepository.saveAndFlush(volunteer);
+        } catch (DataIntegrityViolationException e) {
+            if (RegistrationUniquenessGuard.violates(e, RegistrationUniquenessGuard.VOLUNTEER_EMAIL_CONSTRAINT)) {
+                throw new VolunteerAlreadyExistsException("Email already registered: " + volunteer.getEmail());
+            }
+            // NOT NULL, length, foreign key...: not a duplicate
+            throw e;
+        }
+        uniquenessGuard.recordVolunteerEmail(savedVolunteer.getEmail());
+        volunteerIndex.index(savedVolunteer);
         log.info("New volunteer registered: {} (ID: {})", volunteer.getEmail(), savedVolunteer.getId());
         return savedVolunteer;
     }
@@ -38,36 +71,78 @@ public class VolunteerService {
      * Get volunteer by ID
      */
     public Volunteer getVolunteerById(Long id) {
-        return volunteerRepository.findById(id)
+        return volunteerRepository.findWithInterestsById(id)
                 .orElseThrow(() -> new VolunteerNotFoundException("Volunteer not found with ID: " + id));
     }
 
     /**
      * Get volunteers by their current status (ACTIVE, SUSPENDED, etc.)
      */
+    @Transactional(readOnly = true)
     public List<Volunteer> getVolunteersByStatus(VolunteerStatus status) {
-        return volunteerRepository.findByStatus(status);
+        return withPendingActivity(volunteerRepository.findByStatus(status));
     }
 
     /**
-     * Get all active volunteers
+     * Get all active volunteers, most recently active first
+     * (includes activity not yet flushed by VolunteerActivityTracker)
      */
+    @Transactional(readOnly = true)
     public List<Volunteer> getAllActiveVolunteers() {
-        return volunteerRepository.findByStatusOrderByLastActiveAtDesc(VolunteerStatus.ACTIVE);
+        List<Volunteer> volunteers = withPendingActivity(
+                volunteerRepository.findByStatusOrderByLastActiveAtDesc(VolunteerStatus.ACTIVE));
+        volunteers.sort(Comparator.comparing(Volunteer::getLastActiveAt,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return volunteers;
     }
 
     /**
      * Get volunteers by interest area
      */
+    @Transactional(readOnly = true)
     public List<Volunteer> getVolunteersByInterest(String interest) {
-        return volunteerRepository.findByInterest(interest);
+        return withPendingActivity(volunteerRepository.findByInterest(interest));
+    }
+
+    /**
+     * Match volunteers with a boolean interest/ward/status query against the in-memory index
+     *
+     * @return the requested page of volunteers (ordered by ID) with the total match count
+     */
+    @Transactional(readOnly = true)
+    public Page<Volunteer> matchVolunteers(
+            Collection<String> allInterests,
+            Collection<String> anyInterests,
+            Collection<String> excludeInterests,
+            Collection<String> wards,
+            VolunteerStatus status,
+            Integer activeWithinDays,
+            int page,
+            int size) {
+
+        Long activeSince = activeWithinDays != null
+                ? LocalDateTime.now().minusDays(activeWithinDays).toInstant(ZoneOffset.UTC).toEpochMilli()
+                : null;
+
+        VolunteerInterestIndex.MatchResult result = volunteerIndex.match(
+                allInterests, anyInterests, excludeInterests, wards, status, activeSince, page, size);
+
+        Map<Long, Volunteer> byId = volunteerRepository.findWithInterestsByIdIn(result.getVolunteerIds()).stream()
+                .collect(Collectors.toMap(Volunteer::getId, Function.identity()));
+        List<Volunteer> volunteers = result.getVolunteerIds().stream()
+                .map(byId::get)
+                .filter(v -> v != null)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(volunteers, PageRequest.of(page, size), result.getTotal());
     }
 
     /**
      * Get volunteers in a specific ward
      */
+    @Transactional(readOnly = true)
     public List<Volunteer> getVolunteersByWard(String ward) {
-        return volunteerRepository.findByWard(ward);
+        return withPendingActivity(volunteerRepository.findByWard(ward));
     }
 
     /**
@@ -89,7 +164,9 @@ public class VolunteerService {
         existingVolunteer.setInterests(updatedVolunteer.getInterests());
         existingVolunteer.setBio(updatedVolunteer.getBio());
         existingVolunteer.setProfileImageUrl(updatedVolunteer.getProfileImageUrl());
-        return volunteerRepository.save(existingVolunteer);
+        Volunteer savedVolunteer = volunteerRepository.save(existingVolunteer);
+        volunteerIndex.index(savedVolunteer);
+        return savedVolunteer;
     }
 
     /**
@@ -99,6 +176,7 @@ public class VolunteerService {
         Volunteer volunteer = getVolunteerById(volunteerId);
         volunteer.setStatus(VolunteerStatus.SUSPENDED);
         Volunteer suspendedVolunteer = volunteerRepository.save(volunteer);
+        volunteerIndex.index(suspendedVolunteer);
         log.info("Volunteer suspended: {} (ID: {})", volunteer.getEmail(), volunteerId);
         return suspendedVolunteer;
     }
@@ -110,16 +188,39 @@ public class VolunteerService {
         Volunteer volunteer = getVolunteerById(volunteerId);
         volunteer.setStatus(VolunteerStatus.ACTIVE);
         Volunteer reactivatedVolunteer = volunteerRepository.save(volunteer);
+        volunteerIndex.index(reactivatedVolunteer);
         log.info("Volunteer reactivated: {} (ID: {})", volunteer.getEmail(), volunteerId);
         return reactivatedVolunteer;
     }
 
     /**
      * Update last active timestamp
+     * Recorded in memory and written in batches by VolunteerActivityTracker
      */
     public void updateLastActive(Long volunteerId) {
-        Volunteer volunteer = getVolunteerById(volunteerId);
-        volunteer.setLastActiveAt(LocalDateTime.now());
-        volunteerRepository.save(volunteer);
+        if (!volunteerIndex.contains(volunteerId) && !volunteerRepository.existsById(volunteerId)) {
+            throw new VolunteerNotFoundException("Volunteer not found with ID: " + volunteerId);
+        }
+
+        long now = VolunteerActivityTracker.toEpochMillis(LocalDateTime.now());
+        activityTracker.touch(volunteerId, now);
+        volunteerIndex.touch(volunteerId, now);
+    }
+
+    /**
+     * Overlay unflushed activity onto loaded volunteers.
+     * Callers must be read-only transactions so the change is never flushed by JPA.
+     */
+    private List<Volunteer> withPendingActivity(List<Volunteer> volunteers) {
+        if (activityTracker.getPendingCount() == 0) {
+            return volunteers;
+        }
+        for (Volunteer volunteer : volunteers) {
+            LocalDateTime pending = activityTracker.getPendingLastActive(volunteer.getId());
+            if (pending != null && (volunteer.getLastActiveAt() == null || pending.isAfter(volunteer.getLastActiveAt()))) {
+                volunteer.setLastActiveAt(pending);
+            }
+        }
+        return volunteers;
     }
 }
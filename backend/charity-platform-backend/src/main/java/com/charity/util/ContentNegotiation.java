@@ -0,0 +1,47 @@
+package com.charity.util;
+
+import java.util.Locale;
+
+/**
+ * Parsing of Accept / Accept-Encoding style headers.
+ *
+ * A plain substring check treats "gzip;q=0" (explicitly refused) as
+ * accepted, so the quality value of the matching entry is honoured here.
+ */
+public final class ContentNegotiation {
+
+    private ContentNegotiation() {
+    }
+
+    /**
+     * Whether a header lists the given coding or media type with a non-zero quality.
+     * Wildcards are not treated as a match; callers fall back to the identity/original form.
+     */
+    public static boolean accepts(String headerValue, String token) {
+        if (headerValue == null) {
+            return false;
+        }
+        for (String entry : headerValue.split(",")) {
+            String[] parts = entry.split(";");
+            if (!parts[0].trim().toLowerCase(Locale.ROOT).equals(token)) {
+                continue;
+            }
+            return quality(parts) > 0;
+        }
+        return false;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 2 && param.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.charity.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Naming of resized image variants.
+ *
+ * A variant lives next to its original with the width before the extension
+ * ("img_1706010000_hero_ab12cd34.jpg" -> "..._ab12cd34_w480.jpg"), so file
+ * names and URLs can be derived from the original and the stored list of
+ * widths without a lookup.
+ */
+public final class ImageVariants {
+
+    private ImageVariants() {
+    }
+
+    /**
+     * File name or URL of the variant of an original at a width
+     */
+    public static String variantName(String original, int width) {
+        int dot = original.lastIndexOf('.');
+        int slash = original.lastIndexOf('/');
+        if (dot <= slash) {
+            return original + "_w" + width;
+        }
+        return original.substring(0, dot) + "_w" + width + original.substring(dot);
+    }
+
+    /**
+     * Parse a stored width list ("160,480,960"); null or blank gives an empty list
+     */
+    public static List<Integer> parseWidths(String widths) {
+        List<Integer> result = new ArrayList<>();
+        if (widths == null || widths.isBlank()) {
+            return result;
+        }
+        for (String width : widths.split(",")) {
+            result.add(Integer.parseInt(width.trim()));
+        }
+        return result;
+    }
+
+    public static String formatWidths(Collection<Integer> widths) {
+        return widths.stream().sorted().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,127 @@
+package com.charity.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact, compressed encodings of text revisions.
+ *
+ * A keyframe is the whole value, deflated. A delta keeps the common prefix
+ * and suffix of the previous value and stores only the replaced middle,
+ * which is what a CMS edit usually is:
+ *
+ *   [prefixLength][suffixLength][replacement UTF-8]   (then deflated)
+ *
+ * Lengths are in UTF-16 chars so apply() is plain substring arithmetic.
+ */
+public final class TextDelta {
+
+    private TextDelta() {
+    }
+
+    public static byte[] keyframe(String value) {
+        return deflate(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String fromKeyframe(byte[] payload) {
+        return new String(inflate(payload), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encode the change from previous to next
+     */
+    public static byte[] diff(String previous, String next) {
+        int max = Math.min(previous.length(), next.length());
+        int prefix = 0;
+        while (prefix < max && previous.charAt(prefix) == next.charAt(prefix)) {
+            prefix++;
+        }
+        // Never split a surrogate pair
+        if (prefix > 0 && Character.isHighSurrogate(previous.charAt(prefix - 1))) {
+            prefix--;
+        }
+
+        int suffix = 0;
+        while (suffix < max - prefix
+                && previous.charAt(previous.length() - 1 - suffix) == next.charAt(next.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(next.charAt(next.length() - suffix))) {
+            suffix--;
+        }
+
+        String replacement = next.substring(prefix, next.length() - suffix);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(replacement.length() + 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(prefix);
+            out.writeInt(suffix);
+            out.write(replacement.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return deflate(bytes.toByteArray());
+    }
+
+    /**
+     * Apply a delta produced by {@link #diff} to the previous value
+     */
+    public static String apply(String previous, byte[] delta) {
+        byte[] raw = inflate(delta);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            int prefix = in.readInt();
+            int suffix = in.readInt();
+            String replacement = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (prefix + suffix > previous.length()) {
+                throw new IllegalArgumentException("Delta does not match the previous revision");
+            }
+            return previous.substring(0, prefix) + replacement + previous.substring(previous.length() - suffix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated revision payload");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt revision payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.charity;
+
+import com.charity.entity.AdminRole;
+import com.charity.entity.AdminUser;
+import com.charity.entity.Image;
+import com.charity.entity.PageContent;
+import com.charity.service.ImageManagementService;
+import com.charity.service.PageContentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listing endpoints must cost a fixed number of statements, not one per row
+ * (regression guard for the lazy updatedBy / uploadedBy N+1).
+ * Statements are counted per thread, so background jobs cannot skew the counts.
+ */
+class ContentListingQueryCountTests extends QueryCountTestSupport {
+
+    @Autowired
+    private PageContentService contentService;
+
+    @Autowired
+    private ImageManagementService imageService;
+
+    private String pageName;
+
+    @Override
+    protected void seed(String prefix) {
+        pageName = prefix;
+
+        // One admin per row, so a per-row lazy load could not be served from the session cache
+        for (int i = 0; i < ROWS; i++) {
+            AdminUser admin = new AdminUser();
+            admin.setUsername(pageName + "-admin-" + i);
+            admin.setPassword("not-a-real-hash");
+            admin.setRole(AdminRole.ADMIN);
+            entityManager.persist(admin);
+
+            PageContent content = new PageContent();
+            content.setContentKey(pageName + ".key" + i);
+            content.setContentValue("value " + i);
+            content.setPageName(pageName);
+            content.setUpdatedBy(admin);
+            entityManager.persist(content);
+
+            Image image = new Image();
+            image.setImageKey(pageName + "-image-" + i);
+            image.setImageName("image" + i + ".jpg");
+            image.setFileName("img_" + i + ".jpg");
+            image.setFileUrl("http://localhost/uploads/images/img_" + i + ".jpg");
+            image.setMimeType("image/jpeg");
+            image.setPageName(pageName);
+            image.setStatus("active");
+            image.setUploadedBy(admin);
+            entityManager.persist(image);
+        }
+    }
+
+    @Test
+    void pageContentIsOneStatement() {
+        assertEquals(ROWS, contentService.getPageContent(pageName).size());
+        assertStatements(1);
+    }
+
+    @Test
+    void recentUpdatesIsOneStatement() {
+        assertTrue(contentService.getRecentUpdates().size() >= ROWS);
+        assertStatements(1);
+    }
+
+    @Test
+    void pageImagesIsOneStatement() {
+        assertEquals(ROWS, imageService.getPageImages(pageName).size());
+        assertStatements(1);
+    }
+
+    @Test
+    void recentUploadsIsOneStatement() {
+        assertTrue(imageService.getRecentUploads().size() >= ROWS);
+        assertStatements(1);
+    }
+}
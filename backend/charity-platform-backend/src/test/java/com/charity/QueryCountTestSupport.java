@@ -0,0 +1,48 @@
+package com.charity;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Base for tests asserting that a listing costs a fixed number of statements,
+ * not one per row. Subclasses persist their rows in {@link #seed(String)}; the
+ * rows are flushed and detached, and the per-thread statement count is reset,
+ * before each test. Everything is rolled back afterwards.
+ */
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+@Transactional
+abstract class QueryCountTestSupport {
+
+    protected static final int ROWS = 10;
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    /**
+     * Persist the rows under test
+     *
+     * @param prefix unique per test, for names and unique columns
+     */
+    protected abstract void seed(String prefix);
+
+    @BeforeEach
+    void seedAndResetCount() {
+        seed("qc-" + UUID.randomUUID().toString().substring(0, 8));
+        entityManager.flush();
+        entityManager.clear();
+
+        StatementCounter.reset();
+    }
+
+    protected void assertStatements(long expected) {
+        assertEquals(expected, StatementCounter.count(),
+                "Unexpected number of SQL statements (N+1 regression?)");
+    }
+}
@@ -0,0 +1,83 @@
+package com.charity;
+
+import com.charity.controller.EventController;
+import com.charity.controller.VolunteerController;
+import com.charity.entity.CharityProject;
+import com.charity.entity.Event;
+import com.charity.entity.User;
+import com.charity.entity.UserRole;
+import com.charity.entity.Volunteer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GET /api/v1/volunteers and GET /api/v1/events must cost a fixed number of
+ * statements, not one per row (regression guard for the Volunteer.withInterests
+ * and Event.listView fetch plans).
+ */
+class VolunteerEventListingQueryCountTests extends QueryCountTestSupport {
+
+    @Autowired
+    private VolunteerController volunteerController;
+
+    @Autowired
+    private EventController eventController;
+
+    @Override
+    protected void seed(String prefix) {
+        // One organizer and project per event, so a per-row lazy load could not be served from the session cache
+        for (int i = 0; i < ROWS; i++) {
+            Volunteer volunteer = new Volunteer();
+            volunteer.setName("Volunteer " + i);
+            volunteer.setEmail(prefix + "-volunteer-" + i + "@example.com");
+            volunteer.setPhone(prefix + "-v" + i);
+            volunteer.setWard("Kibra");
+            volunteer.setInterests(new ArrayList<>(List.of("Education", "Health")));
+            entityManager.persist(volunteer);
+
+            User organizer = new User();
+            organizer.setEmail(prefix + "-organizer-" + i + "@example.com");
+            organizer.setPassword("not-a-real-hash");
+            organizer.setFullName("Organizer " + i);
+            organizer.setPhone(prefix + "-u" + i);
+            organizer.setRole(UserRole.EDITOR);
+            organizer.setWard("Kibra");
+            entityManager.persist(organizer);
+
+            CharityProject project = new CharityProject();
+            project.setName("Project " + i);
+            project.setDescription("Project " + i);
+            project.setWard("Kibra");
+            project.setCreatedBy(organizer);
+            entityManager.persist(project);
+
+            Event event = new Event();
+            event.setName("Event " + i);
+            event.setDescription("Event " + i);
+            event.setLocation("Kibra");
+            event.setEventDate(LocalDateTime.now().plusDays(i + 1));
+            event.setOrganizedBy(organizer);
+            event.setProject(project);
+            event.setRegisteredVolunteerIds(new ArrayList<>(List.of(volunteer.getId())));
+            entityManager.persist(event);
+        }
+    }
+
+    @Test
+    void volunteerListingIsOneStatement() {
+        assertTrue(volunteerController.getAllVolunteers().getBody().size() >= ROWS);
+        assertStatements(1);
+    }
+
+    @Test
+    void eventListingIsOneStatement() {
+        assertTrue(eventController.getAllEvents().getBody().size() >= ROWS);
+        assertStatements(1);
+    }
+}
@@ -40,7 +40,7 @@ class AdminAuthService {
      * Logout admin user.
      */
     logout() {
-        this.apiClient.clearToken(); // clearToken also removes from localStorage
+        this.apiClient.logout(); // revokes the session server-side and clears localStorage
         localStorage.removeItem('admin_username');
         localStorage.removeItem('admin_login_time');
         this.username = null;
@@ -61,7 +61,8 @@ class AdminContentEditor {
     async loadPageContent() {
         try {
             console.log(`📥 Loading content for page: ${this.pageName}...`);
-            const content = await this.contentManager.loadPageContent(this.pageName);
+            // Editors work on the draft; visitors see the published page
+            const content = await this.contentManager.loadDraftContent(this.pageName);
             this.applyContent(content);
             console.log('✅ Page content loaded and applied');
         } catch (error) {
@@ -197,8 +198,11 @@ class AdminContentEditor {
                 btn.textContent = '💾 Save Changes';
             }
 
-            alert('✅ All changes saved successfully!');
             this.contentManager.clearDirty();
+            if (confirm('✅ Changes saved as a draft. Publish them to the live page now?')) {
+                await this.contentManager.publishPage(this.pageName);
+                alert('✅ Page published!');
+            }
             return true;
 
         } catch (error) {
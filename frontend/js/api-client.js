@@ -24,6 +24,13 @@ class APIClient {
         localStorage.setItem('auth_token', token);
     }
 
+    /**
+     * Save refresh token (admin sessions)
+     */
+    setRefreshToken(refreshToken) {
+        localStorage.setItem('refresh_token', refreshToken);
+    }
+
     /**
      * Remove JWT token
      */
@@ -31,6 +38,42 @@ class APIClient {
         this.authToken = null;
         localStorage.removeItem('auth_token');
         localStorage.removeItem('admin_token');
+        localStorage.removeItem('refresh_token');
+    }
+
+    /**
+     * Exchange the stored refresh token for a new access token
+     * @private
+     * @returns {Promise<boolean>} true if a new access token was stored
+     */
+    async refreshAccessToken() {
+        const refreshToken = localStorage.getItem('refresh_token');
+        if (!refreshToken) {
+            return false;
+        }
+
+        // Share one in-flight refresh between concurrent requests (refresh tokens are single-use)
+        if (!this.refreshPromise) {
+            this.refreshPromise = fetch(`${this.baseURL}/admin/auth/refresh`, {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken })
+            })
+                .then(async (response) => {
+                    if (!response.ok) {
+                        return false;
+                    }
+                    const data = await response.json();
+                    this.setToken(data.token);
+                    this.setRefreshToken(data.refreshToken);
+                    return true;
+                })
+                .catch(() => false)
+                .finally(() => {
+                    this.refreshPromise = null;
+                });
+        }
+        return this.refreshPromise;
     }
 
     /**
@@ -54,7 +97,7 @@ class APIClient {
      * Make HTTP request
      * @private
      */
-    async request(endpoint, options = {}) {
+    async request(endpoint, options = {}, retried = false) {
         const url = `${this.baseURL}${endpoint}`;
         
         const config = {
@@ -65,6 +108,12 @@ class APIClient {
         try {
             const response = await fetch(url, config);
 
+            // Access tokens are short-lived: try a refresh once before giving up
+            if (response.status === 401 && !retried && !endpoint.startsWith('/admin/auth/')
+                && await this.refreshAccessToken()) {
+                return this.request(endpoint, options, true);
+            }
+
             // Handle 401 Unauthorized (token expired/invalid)
             if (response.status === 401) {
                 this.clearToken();
@@ -109,6 +158,42 @@ class APIClient {
         }
     }
 
+    /**
+     * Get content + active images for a page in one request.
+     * Uses the version-keyed URL (?v=) so the browser can cache the bundle as immutable;
+     * concurrent callers (content and image managers) share the same request.
+     */
+    async getPageBundle(pageName) {
+        this.bundleRequests = this.bundleRequests || {};
+        if (!this.bundleRequests[pageName]) {
+            this.bundleRequests[pageName] = this.getPageVersions()
+                .catch(() => ({}))
+                .then((versions) => {
+                    const version = versions[pageName];
+                    const query = version ? `?v=${encodeURIComponent(version)}` : '';
+                    return this.get(`/pages/${encodeURIComponent(pageName)}/bundle${query}`);
+                })
+                .finally(() => {
+                    delete this.bundleRequests[pageName];
+                });
+        }
+        return this.bundleRequests[pageName];
+    }
+
+    /**
+     * Current bundle version per page, fetched once per page load
+     * @private
+     */
+    getPageVersions() {
+        if (!this.pageVersionsRequest) {
+            this.pageVersionsRequest = this.get('/pages/versions').catch((error) => {
+                delete this.pageVersionsRequest;
+                throw error;
+            });
+        }
+        return this.pageVersionsRequest;
+    }
+
     /**
      * GET request
      */
@@ -259,6 +344,9 @@ class AdminAPIClient extends APIClient {
         if (response.token) {
             this.setToken(response.token);
         }
+        if (response.refreshToken) {
+            this.setRefreshToken(response.refreshToken);
+        }
         return response;
     }
 
@@ -266,6 +354,20 @@ class AdminAPIClient extends APIClient {
         return this.get('/admin/auth/validate');
     }
 
+    /**
+     * Revoke the session on the server (best effort), then forget the tokens locally
+     */
+    logout() {
+        if (this.authToken) {
+            fetch(`${this.baseURL}/admin/auth/logout`, {
+                method: 'POST',
+                headers: this.getHeaders(),
+                keepalive: true
+            }).catch(() => {});
+        }
+        this.clearToken();
+    }
+
     // Content Management
     async updateContent(contentKey, contentValue, pageName) {
         return this.post('/admin/content/update', {
@@ -283,6 +385,17 @@ class AdminAPIClient extends APIClient {
         return this.delete(`/admin/content/${contentKey}`);
     }
 
+    /**
+     * Make the page's current draft live for visitors
+     */
+    async publishPage(pageName) {
+        return this.post(`/admin/content/publish/${pageName}`, {});
+    }
+
+    async getDraftContent(pageName) {
+        return this.get(`/admin/content/publish/${pageName}/draft`);
+    }
+
     // Image Management
     async uploadImage(file, imageKey, pageName, altText, description) {
         const formData = new FormData();
@@ -39,6 +39,8 @@ const API_CONFIG = {
         // Admin Authentication
         ADMIN_AUTH: {
             LOGIN: '/admin/auth/login',
+            REFRESH: '/admin/auth/refresh',
+            LOGOUT: '/admin/auth/logout',
             VALIDATE: '/admin/auth/validate'
         },
         
@@ -97,7 +99,9 @@ const API_CONFIG = {
             BY_KEY: (key) => `/admin/content/${key}`,
             BY_PAGE: (pageName) => `/admin/content/page/${pageName}`,
             PAGE_MAP: (pageName) => `/admin/content/page-map/${pageName}`,
-            RECENT_UPDATES: '/admin/content/recent/updates'
+            RECENT_UPDATES: '/admin/content/recent/updates',
+            PUBLISH: (pageName) => `/admin/content/publish/${pageName}`,
+            DRAFT: (pageName) => `/admin/content/publish/${pageName}/draft`
         },
         
         // Admin Image Management
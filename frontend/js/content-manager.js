@@ -62,7 +62,7 @@ class ContentManager {
      */
     async loadPageContent(pageName = 'landing') {
         try {
-            const contentMap = await this.apiClient.getPageContent(pageName) || {};
+            const contentMap = await this.loadContentMap(pageName);
 
             // Update cache
             Object.assign(this.contentCache, contentMap);
@@ -74,6 +74,43 @@ class ContentManager {
         }
     }
 
+    /**
+     * Load the draft (unpublished) content of a page; falls back to the published content
+     */
+    async loadDraftContent(pageName = 'landing') {
+        try {
+            const draft = await this.apiClient.getDraftContent(pageName);
+            const contentMap = (draft && draft.content) || {};
+            Object.assign(this.contentCache, contentMap);
+            return contentMap;
+        } catch (error) {
+            console.warn('⚠️ Draft content unavailable, loading published content:', error);
+            return this.loadPageContent(pageName);
+        }
+    }
+
+    /**
+     * Publish the page's saved drafts
+     */
+    async publishPage(pageName = 'landing') {
+        const data = await this.apiClient.publishPage(pageName);
+        console.log(`✅ Published page '${pageName}' (version ${data.version})`);
+        return data;
+    }
+
+    /**
+     * Content values for a page, from the page bundle (falls back to the page-map endpoint)
+     * @private
+     */
+    async loadContentMap(pageName) {
+        try {
+            const bundle = await this.apiClient.getPageBundle(pageName);
+            return (bundle && bundle.content) || {};
+        } catch (error) {
+            return await this.apiClient.get(`/admin/content/page-map/${pageName}`) || {};
+        }
+    }
+
     /**
      * Get single content item from backend
      */
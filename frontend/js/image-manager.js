@@ -143,8 +143,13 @@ class ImageManager {
      */
     async getPageImages(pageName) {
         try {
-            const data = await this.apiClient.get(`/admin/images/page/${pageName}`);
-            console.log(`✅ Loaded ${data.count || (data.images || []).length} images for page: ${pageName}`);
+            let data;
+            try {
+                data = await this.apiClient.getPageBundle(pageName);
+            } catch (bundleError) {
+                data = await this.apiClient.get(`/admin/images/page/${pageName}`);
+            }
+            console.log(`✅ Loaded ${(data.images || []).length} images for page: ${pageName}`);
             return data.images || [];
         } catch (error) {
             console.error('❌ Error loading page images:', error);